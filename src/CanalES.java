@@ -0,0 +1,18 @@
+public interface CanalES {
+
+    // Entrada e saída de um programa em execução (show/read). A VM, o código compilado
+    // pelo JIT e o runtime do .jar só conhecem esta interface; o console Swing é apenas
+    // uma das implementações (as outras: CanalFluxo e CanalMemoria).
+
+    // Acumula o texto; quem implementa decide quando entregá-lo (ver descarregar)
+    void escrever(String texto);
+
+    // Bloqueia até uma linha de entrada; null quando a entrada acabou
+    String ler();
+
+    // Entrega o que foi escrito e ainda está no buffer
+    void descarregar();
+
+    // Início de uma nova execução
+    void limpar();
+}
@@ -0,0 +1,66 @@
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+public class CanalFila implements CanalES {
+
+    // Canal para execuções sem tela em paralelo (ExecutorProgramas): a entrada é uma fila
+    // que pode ser alimentada por outra thread enquanto o programa roda, e a saída fica num
+    // StringBuilder. O read espera na fila, que usa as travas de java.util.concurrent: numa
+    // thread virtual a espera estaciona só a thread virtual, sem prender a thread portadora
+    // (ao contrário de synchronized/wait, como no ConsoleExecucao).
+
+    private static final String FIM = new String("FIM"); // Marca de fim da entrada (por identidade)
+
+    private final BlockingQueue<String> entrada = new LinkedBlockingQueue<>();
+    private final StringBuilder saida = new StringBuilder();
+
+    public CanalFila(String... linhasEntrada) {
+        for (String linha : linhasEntrada) {
+            entrada.add(linha);
+        }
+    }
+
+    // Mais uma linha para o read; pode ser chamado de qualquer thread
+    public void enviar(String linha) {
+        entrada.add(linha);
+    }
+
+    // Depois das linhas já enviadas, o read recebe fim da entrada (null)
+    public void fecharEntrada() {
+        entrada.add(FIM);
+    }
+
+    public String getSaida() {
+        return saida.toString();
+    }
+
+    @Override
+    public void escrever(String texto) {
+        saida.append(texto);
+    }
+
+    @Override
+    public String ler() {
+        try {
+            String linha = entrada.take();
+            if (linha == FIM) {
+                entrada.add(FIM); // Os próximos read também veem o fim
+                return null;
+            }
+            return linha;
+        } catch (InterruptedException e) {
+            // Parada pedida (MaquinaVirtual.parar): a leitura termina como fim da entrada
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    @Override
+    public void descarregar() {
+    }
+
+    @Override
+    public void limpar() {
+        saida.setLength(0);
+    }
+}
@@ -0,0 +1,93 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class CanalFluxo implements CanalES, Closeable {
+
+    // Canal sobre fluxos de bytes: entrada/saída padrão ou arquivos. A saída vai para um
+    // buffer e só é gravada quando enche, antes de cada leitura e no fim da execução.
+
+    private static final int TAMANHO_BUFFER = 1 << 16;
+
+    private final BufferedReader entrada;
+    private final Writer saida;
+    // Arquivos abertos por arquivos(): close() também os fecha (stdin/stdout não)
+    private final boolean fecharEntrada;
+    private final boolean fecharSaida;
+
+    public CanalFluxo(InputStream entrada, OutputStream saida, Charset charset) {
+        this(new InputStreamReader(entrada, charset), new OutputStreamWriter(saida, charset), false, false);
+    }
+
+    private CanalFluxo(Reader entrada, Writer saida, boolean fecharEntrada, boolean fecharSaida) {
+        this.entrada = new BufferedReader(entrada);
+        this.saida = new BufferedWriter(saida, TAMANHO_BUFFER);
+        this.fecharEntrada = fecharEntrada;
+        this.fecharSaida = fecharSaida;
+    }
+
+    // stdin/stdout com a codificação da plataforma (como System.out)
+    public static CanalFluxo padrao() {
+        return new CanalFluxo(System.in, System.out, Charset.defaultCharset());
+    }
+
+    // Arquivos em UTF-8; null no lugar de um deles usa stdin/stdout
+    public static CanalFluxo arquivos(Path entrada, Path saida) throws IOException {
+        Reader in = (entrada != null) ? Files.newBufferedReader(entrada, StandardCharsets.UTF_8)
+                : new InputStreamReader(System.in, Charset.defaultCharset());
+        Writer out = (saida != null) ? Files.newBufferedWriter(saida, StandardCharsets.UTF_8)
+                : new OutputStreamWriter(System.out, Charset.defaultCharset());
+        return new CanalFluxo(in, out, entrada != null, saida != null);
+    }
+
+    @Override
+    public void escrever(String texto) {
+        try {
+            saida.write(texto);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public String ler() {
+        descarregar(); // o que já foi escrito aparece antes de esperar a entrada
+        try {
+            return entrada.readLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void descarregar() {
+        try {
+            saida.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void limpar() {
+    }
+
+    @Override
+    public void close() throws IOException {
+        saida.flush();
+        if (fecharEntrada) entrada.close();
+        if (fecharSaida) saida.close();
+    }
+}
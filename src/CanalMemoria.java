@@ -0,0 +1,39 @@
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+public class CanalMemoria implements CanalES {
+
+    // Canal em memória: as linhas de entrada são dadas de antemão e a saída fica num
+    // StringBuilder (execução sem tela e sem arquivos, para comparar saídas).
+
+    private final Deque<String> entrada;
+    private final StringBuilder saida = new StringBuilder();
+
+    public CanalMemoria(String... linhasEntrada) {
+        this.entrada = new ArrayDeque<>(Arrays.asList(linhasEntrada));
+    }
+
+    public String getSaida() {
+        return saida.toString();
+    }
+
+    @Override
+    public void escrever(String texto) {
+        saida.append(texto);
+    }
+
+    @Override
+    public String ler() {
+        return entrada.pollFirst();
+    }
+
+    @Override
+    public void descarregar() {
+    }
+
+    @Override
+    public void limpar() {
+        saida.setLength(0);
+    }
+}
@@ -0,0 +1,129 @@
+import java.util.HashMap;
+import java.util.Map;
+
+public final class CodigoOperacao {
+
+    // Códigos numéricos das instruções da máquina virtual.
+    // O mnemônico (String) só é consultado na decodificação, nunca durante a execução.
+    public static final int STP = 0;
+
+    // Carga de constantes
+    public static final int LDI = 1;
+    public static final int LDR = 2;
+    public static final int LDS = 3;
+    public static final int LDB = 4;
+
+    // Aritmética
+    public static final int ADD = 5;
+    public static final int SUB = 6;
+    public static final int MUL = 7;
+    public static final int DIV = 8;
+    public static final int MOD = 9;
+    public static final int POW = 10;
+    public static final int REM = 11;
+
+    // Memória
+    public static final int STR = 12;
+    public static final int LDV = 13;
+    public static final int STX = 14;
+    public static final int LDX = 15;
+
+    // Entrada e saída
+    public static final int WRT = 16;
+    public static final int REA = 17;
+
+    // Desvios
+    public static final int JMP = 18;
+    public static final int JMF = 19;
+
+    // Relacionais
+    public static final int EQL = 20;
+    public static final int DIF = 21;
+    public static final int SMR = 22;
+    public static final int BGR = 23;
+    public static final int SME = 24;
+    public static final int BGE = 25;
+
+    // Lógicas
+    public static final int AND = 26;
+    public static final int OR = 27;
+    public static final int NOT = 28;
+
+    // Alocação
+    public static final int ALI = 29;
+    public static final int ALR = 30;
+    public static final int ALS = 31;
+    public static final int ALB = 32;
+
+    // Aritmética tipada (gerada a partir da pilha de tipos do compilador)
+    public static final int ADDI = 33;
+    public static final int SUBI = 34;
+    public static final int MULI = 35;
+    public static final int MODI = 36;
+    public static final int REMI = 37;
+    public static final int POWI = 38;
+    public static final int ADDR = 39;
+    public static final int SUBR = 40;
+    public static final int MULR = 41;
+    public static final int DIVR = 42;
+    public static final int MODR = 43;
+    public static final int REMR = 44;
+    public static final int POWR = 45;
+
+    // Conversão num -> real (parâmetro: 0 = topo, 1 = abaixo do topo)
+    public static final int CVR = 46;
+
+    // Guarda o topo no endereço sem desempilhar (gerada pelo OtimizadorPeephole)
+    public static final int STK = 47;
+
+    // Superinstruções (só existem no modo de execução com fusão, nunca no código objeto).
+    // O operando é o índice dos argumentos em ProgramaDecodificado.getComplementos().
+    public static final int OPVV = 48; // LDV a; LDV b; op; STR c
+    public static final int OPVK = 49; // LDV a; LDI k; op; STR c
+    public static final int INCV = 50; // LDV a; LDI k; ADDI/SUBI; STR a
+    public static final int CPVV = 51; // LDV a; LDV b; rel; JMF x
+    public static final int CPVK = 52; // LDV a; LDI k; rel; JMF x
+
+    // Mnemônico desconhecido (o texto original fica no pool de strings)
+    public static final int INVALIDA = 53;
+
+    private static final String[] MNEMONICOS = {
+        "STP",
+        "LDI", "LDR", "LDS", "LDB",
+        "ADD", "SUB", "MUL", "DIV", "MOD", "POW", "REM",
+        "STR", "LDV", "STX", "LDX",
+        "WRT", "REA",
+        "JMP", "JMF",
+        "EQL", "DIF", "SMR", "BGR", "SME", "BGE",
+        "AND", "OR", "NOT",
+        "ALI", "ALR", "ALS", "ALB",
+        "ADDI", "SUBI", "MULI", "MODI", "REMI", "POWI",
+        "ADDR", "SUBR", "MULR", "DIVR", "MODR", "REMR", "POWR",
+        "CVR",
+        "STK",
+        "OPVV", "OPVK", "INCV", "CPVV", "CPVK",
+        "???"
+    };
+
+    private static final Map<String, Integer> CODIGOS = new HashMap<>();
+    static {
+        for (int i = 0; i < INVALIDA; i++) {
+            CODIGOS.put(MNEMONICOS[i], i);
+        }
+    }
+
+    private CodigoOperacao() {
+    }
+
+    public static int deMnemonico(String mnemonico) {
+        Integer codigo = CODIGOS.get(mnemonico);
+        return (codigo != null) ? codigo : INVALIDA;
+    }
+
+    public static String mnemonico(int codigo) {
+        if (codigo < 0 || codigo >= MNEMONICOS.length) {
+            return MNEMONICOS[INVALIDA];
+        }
+        return MNEMONICOS[codigo];
+    }
+}
@@ -3,20 +3,26 @@ import java.io.*;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Stack;
+import java.util.function.IntSupplier;
 
 public class Compilador implements CompiladorConstants {
 
     private ErrorHandler errorHandler;
     private TabelaDeSimbolos tabelaDeSimbolos = new TabelaDeSimbolos();
-    private GeradorDeCodigo geradorDeCodigo = new GeradorDeCodigo();
+    // Cada instrução gerada leva a linha do último token consumido (perfil de execução)
+    private GeradorDeCodigo geradorDeCodigo = new GeradorDeCodigo(new IntSupplier() {
+        public int getAsInt() {
+            return token.beginLine;
+        }
+    });
 
     // Controle de tipos semânticos
     private Stack<Integer> pilhaTipos = new Stack<Integer>();
     // 1=num(int), 2=real, 3=text, 4=flag(bool)
 
     private int VP;
-    private List<String> listaDeIdentificadoresDaLinha;
-    private List<Integer> listaBasesDaLinha;
+    private List<String> listaDeIdentificadoresDaLinha = new ArrayList<String>();
+    private List<Integer> listaBasesDaLinha = new ArrayList<Integer>();
     private int categoriaAtual;
     private Stack<Integer> pilhaDeDesvios = new Stack<Integer>();
     private int baseDoUltimoVetor;
@@ -36,6 +42,85 @@ public class Compilador implements CompiladorConstants {
         this.tabelaDeSimbolos.setErrorHandler(handler);
     }
 
+    // Parser sobre os tokens de uma análise léxica já feita: o fonte é lido uma única vez
+    public Compilador(List<Token> tokens, ErrorHandler handler) {
+        this(new TokensGravados(tokens));
+        this.errorHandler = handler;
+        this.tabelaDeSimbolos.setErrorHandler(handler);
+    }
+
+    // Compilador reaproveitável para compilações repetidas (ex.: correção automática de
+    // muitos programas pequenos): ver reiniciar
+    public Compilador() {
+        this(new LexicoReutilizavel());
+    }
+
+    // Prepara este Compilador para outro fonte sem realocar: tokens, jj_la1, pilhas, tabela
+    // de símbolos e código gerado voltam ao estado inicial. O fonte é analisado inteiro aqui
+    // (erros léxicos vão para o handler); sem erros, chame programa(). A lista de
+    // getInstrucoes() é a mesma a cada compilação: só vale até o próximo reiniciar.
+    public void reiniciar(CharSequence fonte, ErrorHandler handler) throws TokenMgrError {
+        LexicoReutilizavel lexico = (token_source instanceof LexicoReutilizavel)
+                ? (LexicoReutilizavel) token_source : new LexicoReutilizavel();
+        lexico.reiniciar(fonte, handler);
+        ReInit(lexico);
+
+        errorHandler = handler;
+        tabelaDeSimbolos.limpar();
+        tabelaDeSimbolos.setErrorHandler(handler);
+        geradorDeCodigo.limpar();
+        pilhaTipos.clear();
+        pilhaDeDesvios.clear();
+        listaDeIdentificadoresDaLinha.clear();
+        listaBasesDaLinha.clear();
+        VP = 0;
+        categoriaAtual = 0;
+        baseDoUltimoVetor = 0;
+        tamanhoDoUltimoVetor = 0;
+        houveInitLinha = false;
+        primeiroBaseInit = 0;
+        indiceCorrenteVetor = 0;
+        indiceConstante = null;
+    }
+
+    // Análise léxica completa numa passada: registra os erros léxicos e devolve todos os
+    // tokens (terminando no EOF) para o parser reaproveitar
+    public static List<Token> analisarLexico(Reader fonte, ErrorHandler handler) throws TokenMgrError {
+        return analisarLexico(new CompiladorTokenManager(new SimpleCharStream(fonte)), handler);
+    }
+
+    // Texto já em memória: lido direto pelo FluxoTexto, sem cópia para o buffer do SimpleCharStream
+    public static List<Token> analisarLexico(CharSequence fonte, ErrorHandler handler) throws TokenMgrError {
+        return analisarLexico(new CompiladorTokenManager(new FluxoTexto(fonte)), handler);
+    }
+
+    private static List<Token> analisarLexico(CompiladorTokenManager lexico, ErrorHandler handler) {
+        List<Token> tokens = new ArrayList<Token>();
+        Token t;
+        do {
+            t = lexico.getNextToken();
+            if (isErroLexico(t.kind)) {
+                handler.processLexicalError(t, "");
+            }
+            tokens.add(t);
+        } while (t.kind != EOF);
+        return tokens;
+    }
+
+    // Registra os erros léxicos de tokens analisados fora daqui (LexicoIncremental), na ordem
+    public static void registrarErrosLexicos(List<Token> tokens, ErrorHandler handler) {
+        for (Token t : tokens) {
+            if (isErroLexico(t.kind)) {
+                handler.processLexicalError(t, "");
+            }
+        }
+    }
+
+    public static boolean isErroLexico(int kind) {
+        return (kind >= ERRO_REAL_FRACAO_LONGA && kind <= ERRO_ID_TERMINA_COM_DIGITO)
+                || kind == ERRO_LEXICO || kind == ERRO_STRING_NAO_FINALIZADA;
+    }
+
     public String getCodigoGerado() {
         if (errorHandler.hasErrors()) {
             return "--- ERROS ENCONTRADOS. C\u00d3DIGO N\u00c3O GERADO ---";
@@ -102,6 +187,38 @@ public class Compilador implements CompiladorConstants {
         }
     }
 
+    // Emite a operação aritmética tipada a partir dos tipos dos operandos (topo de pilhaTipos):
+    // num x num -> versão inteira (ADDI...), caso contrário versão real (ADDR...) com CVR nos operandos num.
+    // Subexpressões só com literais são dobradas em uma única constante.
+    private void gerarAritmetica(String op, String simbolo, Token t) {
+        int t1 = 0, t2 = 0;
+        if (pilhaTipos.size() >= 2) {
+            t2 = pilhaTipos.get(pilhaTipos.size() - 1);
+            t1 = pilhaTipos.get(pilhaTipos.size() - 2);
+        }
+        verificaAritmetica(simbolo, t);
+
+        if ((t1 != 1 && t1 != 2) || (t2 != 1 && t2 != 2)) {
+            geradorDeCodigo.gerar(op, "0"); // Erro semântico já registrado
+            return;
+        }
+
+        boolean real = op.equals("DIV") || t1 == 2 || t2 == 2;
+
+        // Operandos literais: calcula já na compilação (LDI a; LDI b; op -> LDI r)
+        if (geradorDeCodigo.dobrarConstantes(op, real)) {
+            return;
+        }
+
+        if (real) {
+            if (t1 == 1) geradorDeCodigo.gerar("CVR", "1");
+            if (t2 == 1) geradorDeCodigo.gerar("CVR", "0");
+            geradorDeCodigo.gerar(op + "R", "0");
+        } else {
+            geradorDeCodigo.gerar(op + "I", "0");
+        }
+    }
+
     // Regra iv: Relacional
     private void verificaRelacional(String op, Token t) {
         if (pilhaTipos.size() < 2) return;
@@ -197,8 +314,8 @@ public class Compilador implements CompiladorConstants {
     switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
     case DEFINE:
       jj_consume_token(DEFINE);
-          listaDeIdentificadoresDaLinha = new ArrayList<String>();
-          listaBasesDaLinha = new ArrayList<Integer>();
+          listaDeIdentificadoresDaLinha.clear();
+          listaBasesDaLinha.clear();
           VP = 0;
           houveInitLinha = false;
           primeiroBaseInit = -1;
@@ -466,7 +583,6 @@ public class Compilador implements CompiladorConstants {
       jj_consume_token(RBRACE);
             if (indiceCorrenteVetor == 1) {
                 int baseV = baseDoUltimoVetor;
-                geradorDeCodigo.gerar("STR", String.valueOf(baseV));
                 for (int j = 2; j <= tamanhoDoUltimoVetor; j++) {
                     geradorDeCodigo.gerar("LDV", String.valueOf(baseV));
                     geradorDeCodigo.gerar("STR", String.valueOf(baseV + (j-1)));
@@ -481,6 +597,9 @@ public class Compilador implements CompiladorConstants {
 
   final public void lista_valores_vetor() throws ParseException {
     valor();
+        if (categoriaAtual == 2 && !pilhaTipos.isEmpty() && pilhaTipos.peek() == 1) {
+            geradorDeCodigo.gerar("CVR", "0");
+        }
         geradorDeCodigo.gerar("STR", String.valueOf(baseDoUltimoVetor + indiceCorrenteVetor));
         indiceCorrenteVetor++;
 
@@ -498,6 +617,9 @@ public class Compilador implements CompiladorConstants {
     case COMMA:
       jj_consume_token(COMMA);
       valor();
+            if (categoriaAtual == 2 && !pilhaTipos.isEmpty() && pilhaTipos.peek() == 1) {
+                geradorDeCodigo.gerar("CVR", "0");
+            }
             geradorDeCodigo.gerar("STR", String.valueOf(baseDoUltimoVetor + indiceCorrenteVetor));
             indiceCorrenteVetor++;
             if (!pilhaTipos.isEmpty()) pilhaTipos.pop();
@@ -615,6 +737,10 @@ public class Compilador implements CompiladorConstants {
       jj_consume_token(ASSIGN);
       expressao();
             if (simboloLHS != null) {
+                // num atribuído a real: converte antes de guardar
+                if (simboloLHS.getCategoria() == 2 && !pilhaTipos.isEmpty() && pilhaTipos.peek() == 1) {
+                    geradorDeCodigo.gerar("CVR", "0");
+                }
                 verificaAtribuicao(simboloLHS.getCategoria(), t);
             }
             if (simboloLHS != null) {
@@ -711,7 +837,7 @@ public class Compilador implements CompiladorConstants {
       expressao();
             if(simboloLHS != null) {
                 geradorDeCodigo.gerar("LDI", String.valueOf(simboloLHS.getBase() - 1));
-                geradorDeCodigo.gerar("ADD", "0");
+                geradorDeCodigo.gerar("ADDI", "0");
             }
             if (!pilhaTipos.isEmpty()) pilhaTipos.pop();
       jj_consume_token(RBRACKET);
@@ -912,24 +1038,31 @@ public class Compilador implements CompiladorConstants {
   }
 
   final public void menor_prioridade() throws ParseException {
-                            Token t;
+                            Token t; int desvioDireito, desvioFim;
     switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
     case OP_ARIT_SUM:
       t = jj_consume_token(OP_ARIT_SUM);
       termo2();
-                                 geradorDeCodigo.gerar("ADD", "0"); verificaAritmetica("+", t);
+                                 gerarAritmetica("ADD", "+", t);
       menor_prioridade();
       break;
     case OP_ARIT_SUB:
       t = jj_consume_token(OP_ARIT_SUB);
       termo2();
-                                 geradorDeCodigo.gerar("SUB", "0"); verificaAritmetica("-", t);
+                                 gerarAritmetica("SUB", "-", t);
       menor_prioridade();
       break;
     case OP_LOGIC_OR:
       t = jj_consume_token(OP_LOGIC_OR);
+            // Curto-circuito: esquerdo verdadeiro já é o resultado, sem avaliar o direito
+            //   <esq> JMF dir; LDB 1; JMP fim; dir: <dir>; fim:
+            desvioDireito = geradorDeCodigo.gerar("JMF", "0");
+            geradorDeCodigo.gerar("LDB", "1");
+            desvioFim = geradorDeCodigo.gerar("JMP", "0");
+            geradorDeCodigo.corrigir(desvioDireito, String.valueOf(geradorDeCodigo.getProximoPonteiro()));
       termo2();
-                                 geradorDeCodigo.gerar("OR", "0"); verificaLogica("|", t);
+            geradorDeCodigo.corrigir(desvioFim, String.valueOf(geradorDeCodigo.getProximoPonteiro()));
+            verificaLogica("|", t);
       menor_prioridade();
       break;
     default:
@@ -944,36 +1077,43 @@ public class Compilador implements CompiladorConstants {
   }
 
   final public void media_prioridade() throws ParseException {
-                            Token t;
+                            Token t; int desvioFalso, desvioFim;
     switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
     case OP_ARIT_MUL:
       t = jj_consume_token(OP_ARIT_MUL);
       termo1();
-                                 geradorDeCodigo.gerar("MUL", "0"); verificaAritmetica("*", t);
+                                 gerarAritmetica("MUL", "*", t);
       media_prioridade();
       break;
     case OP_ARIT_DIV:
       t = jj_consume_token(OP_ARIT_DIV);
       termo1();
-                                 geradorDeCodigo.gerar("DIV", "0"); verificaAritmetica("/", t);
+                                 gerarAritmetica("DIV", "/", t);
       media_prioridade();
       break;
     case OP_ARIT_MOD:
       t = jj_consume_token(OP_ARIT_MOD);
       termo1();
-                                 geradorDeCodigo.gerar("MOD", "0"); verificaAritmetica("%", t);
+                                 gerarAritmetica("MOD", "%", t);
       media_prioridade();
       break;
     case OP_ARIT_DIVINT:
       t = jj_consume_token(OP_ARIT_DIVINT);
       termo1();
-                                    geradorDeCodigo.gerar("REM", "0"); verificaAritmetica("%%", t);
+                                    gerarAritmetica("REM", "%%", t);
       media_prioridade();
       break;
     case OP_LOGIC_AND:
       t = jj_consume_token(OP_LOGIC_AND);
+            // Curto-circuito: esquerdo falso já é o resultado, sem avaliar o direito
+            //   <esq> JMF falso; <dir>; JMP fim; falso: LDB 0; fim:
+            desvioFalso = geradorDeCodigo.gerar("JMF", "0");
       termo1();
-                                  geradorDeCodigo.gerar("AND", "0"); verificaLogica("&", t);
+            desvioFim = geradorDeCodigo.gerar("JMP", "0");
+            geradorDeCodigo.corrigir(desvioFalso, String.valueOf(geradorDeCodigo.getProximoPonteiro()));
+            geradorDeCodigo.gerar("LDB", "0");
+            geradorDeCodigo.corrigir(desvioFim, String.valueOf(geradorDeCodigo.getProximoPonteiro()));
+            verificaLogica("&", t);
       media_prioridade();
       break;
     default:
@@ -993,7 +1133,7 @@ public class Compilador implements CompiladorConstants {
     case OP_ARIT_POW:
       t = jj_consume_token(OP_ARIT_POW);
       elemento();
-                                   geradorDeCodigo.gerar("POW", "0"); verificaAritmetica("**", t);
+                                   gerarAritmetica("POW", "**", t);
       maior_prioridade();
       break;
     default:
@@ -1112,7 +1252,7 @@ public class Compilador implements CompiladorConstants {
 
                 if(simbolo != null) {
                     geradorDeCodigo.gerar("LDI", String.valueOf(simbolo.getBase() - 1));
-                    geradorDeCodigo.gerar("ADD", "0");
+                    geradorDeCodigo.gerar("ADDI", "0");
                 }
         break;
       default:
@@ -0,0 +1,332 @@
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+public class CompiladorAot {
+
+    // Compila o código objeto inteiro para uma classe Java com main e empacota num .jar
+    // executável (java -jar programa.jar), junto com o runtime ExecucaoCompilada.
+    // Não há análise nem interpretação na execução: cada instrução é uma chamada direta.
+    // O código fica em métodos de até INSTRUCOES_POR_BLOCO instruções (limites de tamanho de
+    // método e de desvio da JVM), ligados pelo despacho em executar.
+
+    public static final String NOME_CLASSE_PADRAO = "ProgramaCompilado";
+
+    private static final String RUNTIME = "ExecucaoCompilada";
+    private static final String INTERFACE = "ExecucaoCompilada$Programa";
+    private static final String DESCRITOR_BLOCO = "(L" + RUNTIME + ";I)I";
+
+    // Instruções por método gerado. Cada instrução ocupa no máximo 12 bytes de bytecode, e a
+    // entrada do bloco 8 por alvo: o método fica abaixo de 32 KB, e todo desvio dentro dele
+    // cabe nos 16 bits do goto/if. Desvios entre blocos passam pelo despacho de executar.
+    private static final int INSTRUCOES_POR_BLOCO = 1000;
+
+    // Classes copiadas para dentro do .jar (o runtime e o que ele usa)
+    private static final String[] CLASSES_RUNTIME = {
+        "ExecucaoCompilada", "ExecucaoCompilada$Programa", "CanalES", "CanalFluxo", "PilhaOperandos", "MemoriaDados",
+        "OperacoesMaquina", "CodigoOperacao"
+    };
+
+    private CompiladorAot() {
+    }
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.err.println("Uso: java CompiladorAot <arquivo-fonte> [saida.jar]");
+            return;
+        }
+        String destino = (args.length > 1) ? args[1] : args[0].replaceFirst("\\.[^.\\\\/]*$", "") + ".jar";
+
+        try (Reader reader = new InputStreamReader(new FileInputStream(args[0]), StandardCharsets.UTF_8)) {
+            ErrorHandler errorHandler = new ErrorHandler();
+            Compilador compilador = new Compilador(reader, errorHandler);
+            compilador.programa();
+
+            if (errorHandler.hasErrors()) {
+                System.err.println("=== Erros encontrados: ===");
+                for (String erro : errorHandler.getErrorMessages()) {
+                    System.err.println("- " + erro);
+                }
+                System.exit(1);
+            }
+
+            gravarJar(compilador.getInstrucoes(), NOME_CLASSE_PADRAO, Paths.get(destino));
+            System.out.println("Gerado: " + destino);
+        } catch (FileNotFoundException e) {
+            System.err.println("Arquivo não encontrado: " + e.getMessage());
+            System.exit(1);
+        } catch (ParseException | TokenMgrError e) {
+            System.err.println("ERRO FATAL: " + e.getMessage());
+            System.exit(1);
+        } catch (IOException | IllegalArgumentException | IllegalStateException e) {
+            System.err.println("Não foi possível gerar o executável: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    // O .jar é montado inteiro em memória antes de criar o arquivo: programa rejeitado pelo
+    // compilador não deixa um .jar vazio ou corrompido no disco
+    public static void gravarJar(List<Instrucao> instrucoes, String nomeClasse, Path destino) throws IOException {
+        ByteArrayOutputStream jar = new ByteArrayOutputStream();
+        gerarJar(instrucoes, nomeClasse, jar);
+        Files.write(destino, jar.toByteArray());
+    }
+
+    public static void gerarJar(List<Instrucao> instrucoes, String nomeClasse, OutputStream destino) throws IOException {
+        byte[] classe = compilarClasse(instrucoes, nomeClasse);
+
+        Manifest manifesto = new Manifest();
+        manifesto.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        manifesto.getMainAttributes().put(Attributes.Name.MAIN_CLASS, nomeClasse);
+
+        JarOutputStream jar = new JarOutputStream(destino, manifesto);
+        jar.putNextEntry(new JarEntry(nomeClasse + ".class"));
+        jar.write(classe);
+        jar.closeEntry();
+
+        for (String nome : CLASSES_RUNTIME) {
+            try (InputStream entrada = CompiladorAot.class.getResourceAsStream("/" + nome + ".class")) {
+                if (entrada == null) throw new IOException("Classe do runtime não encontrada: " + nome);
+                jar.putNextEntry(new JarEntry(nome + ".class"));
+                entrada.transferTo(jar);
+                jar.closeEntry();
+            }
+        }
+        jar.finish();
+    }
+
+    // Gera a classe: main cria uma instância e a entrega ao runtime, que chama executar()
+    public static byte[] compilarClasse(List<Instrucao> instrucoes, String nomeClasse) {
+        // A decodificação valida os parâmetros e resolve os desvios, como na carga da VM
+        ProgramaDecodificado programa = ProgramaDecodificado.decodificar(instrucoes);
+
+        EmissorClasse classe = new EmissorClasse(nomeClasse, "java/lang/Object", INTERFACE);
+        classe.adicionarConstrutorPadrao("java/lang/Object");
+
+        EmissorClasse.Codigo main = new EmissorClasse.Codigo();
+        main.op2(EmissorClasse.NEW, classe.classe(nomeClasse));
+        main.op(EmissorClasse.DUP);
+        main.op2(EmissorClasse.INVOKESPECIAL, classe.metodo(nomeClasse, "<init>", "()V"));
+        main.carregarInteiro(classe, programa.getTamanhoMemoria());
+        main.op2(EmissorClasse.INVOKESTATIC, classe.metodo(RUNTIME, "iniciar", "(L" + INTERFACE + ";I)V"));
+        main.op(EmissorClasse.RETURN);
+        classe.adicionarMetodo(EmissorClasse.ACC_PUBLIC | EmissorClasse.ACC_STATIC, "main", "([Ljava/lang/String;)V",
+                main, 3, 1);
+
+        // executar só despacha: o código fica em métodos de até INSTRUCOES_POR_BLOCO instruções
+        int n = programa.tamanho();
+        classe.adicionarMetodo(EmissorClasse.ACC_PUBLIC, "executar", "(L" + RUNTIME + ";)V",
+                gerarDespacho(n, classe, nomeClasse), 3, 3);
+        for (int inicio = 0; inicio < n; inicio += INSTRUCOES_POR_BLOCO) {
+            int fim = Math.min(inicio + INSTRUCOES_POR_BLOCO, n);
+            classe.adicionarMetodo(EmissorClasse.ACC_PUBLIC, "bloco" + inicio, DESCRITOR_BLOCO,
+                    gerarBloco(programa, classe, nomeClasse, inicio, fim), 4, 3);
+        }
+        return classe.gerar();
+    }
+
+    // ip = 0; enquanto ip < n: ip = blocoK(execucao, ip), com K o bloco que contém ip
+    private static EmissorClasse.Codigo gerarDespacho(int n, EmissorClasse classe, String nomeClasse) {
+        EmissorClasse.Codigo codigo = new EmissorClasse.Codigo();
+        String[] locais = {nomeClasse, RUNTIME, EmissorClasse.TIPO_INT};
+        String[] pilhaVazia = {};
+
+        codigo.op(EmissorClasse.ICONST_0);
+        codigo.local(EmissorClasse.ISTORE, 2);
+        int laco = codigo.novoRotulo();
+        codigo.marcar(laco);
+        codigo.quadro(locais, pilhaVazia);
+        for (int inicio = 0; inicio < n; inicio += INSTRUCOES_POR_BLOCO) {
+            int fim = Math.min(inicio + INSTRUCOES_POR_BLOCO, n);
+            int proximoBloco = codigo.novoRotulo();
+            codigo.local(EmissorClasse.ILOAD, 2);
+            codigo.carregarInteiro(classe, fim);
+            codigo.desvio(EmissorClasse.IF_ICMPGE, proximoBloco);
+            codigo.local(EmissorClasse.ALOAD, 0);
+            codigo.local(EmissorClasse.ALOAD, 1);
+            codigo.local(EmissorClasse.ILOAD, 2);
+            codigo.op2(EmissorClasse.INVOKEVIRTUAL, classe.metodo(nomeClasse, "bloco" + inicio, DESCRITOR_BLOCO));
+            codigo.local(EmissorClasse.ISTORE, 2);
+            codigo.desvio(EmissorClasse.GOTO, laco);
+            codigo.marcar(proximoBloco);
+            codigo.quadro(locais, pilhaVazia);
+        }
+        // Fim do programa: STP ou desvio para depois da última instrução
+        codigo.op(EmissorClasse.RETURN);
+        return codigo;
+    }
+
+    // Instruções inicio..fim-1. Entra pela instrução 'ip' (o início do bloco ou alvo de um desvio
+    // vindo de outro bloco) e devolve a próxima instrução fora do bloco (n depois do STP).
+    private static EmissorClasse.Codigo gerarBloco(ProgramaDecodificado programa, EmissorClasse classe,
+                                                   String nomeClasse, int inicio, int fim) {
+        int[] opcodes = programa.getOpcodes();
+        int[] operandos = programa.getOperandos();
+        int n = opcodes.length;
+
+        EmissorClasse.Codigo codigo = new EmissorClasse.Codigo();
+        int[] rotulos = new int[fim - inicio + 1]; // fim - inicio: saída para a instrução 'fim'
+        for (int i = 0; i < rotulos.length; i++) {
+            rotulos[i] = codigo.novoRotulo();
+        }
+        // A pilha da JVM fica vazia entre instruções: a pilha de operandos está no runtime
+        String[] locais = {nomeClasse, RUNTIME, EmissorClasse.TIPO_INT};
+        String[] pilhaVazia = {};
+
+        // Entrada: desvios de outros blocos chegam pelo parâmetro ip
+        boolean[] entrada = new boolean[fim - inicio];
+        for (int i = 0; i < n; i++) {
+            int alvo = operandos[i];
+            if ((opcodes[i] == CodigoOperacao.JMP || opcodes[i] == CodigoOperacao.JMF) && (i < inicio || i >= fim)
+                    && alvo > inicio && alvo < fim) {
+                entrada[alvo - inicio] = true;
+            }
+        }
+        for (int i = 1; i < entrada.length; i++) {
+            if (!entrada[i]) continue;
+            codigo.local(EmissorClasse.ILOAD, 2);
+            codigo.carregarInteiro(classe, inicio + i);
+            codigo.desvio(EmissorClasse.IF_ICMPEQ, rotulos[i]);
+        }
+
+        boolean precisaQuadro = false;
+        for (int i = inicio; i < fim; i++) {
+            codigo.marcar(rotulos[i - inicio]);
+            if (precisaQuadro || entrada[i - inicio] || programa.isAlvoDeDesvio(i)
+                    || (i > inicio && terminaBloco(opcodes[i - 1]))) {
+                codigo.quadro(locais, pilhaVazia);
+            }
+            precisaQuadro = false;
+
+            int op = opcodes[i];
+            int par = operandos[i];
+            boolean local = par >= inicio && par <= fim; // Desvio que fica dentro do bloco
+            switch (op) {
+                case CodigoOperacao.STP:
+                    chamar(codigo, classe, "stp", "()V");
+                    codigo.carregarInteiro(classe, n);
+                    codigo.op(EmissorClasse.IRETURN);
+                    break;
+
+                case CodigoOperacao.LDI:
+                case CodigoOperacao.LDB:
+                    codigo.local(EmissorClasse.ALOAD, 1);
+                    codigo.carregarLongo(classe, par);
+                    codigo.op2(EmissorClasse.INVOKEVIRTUAL, classe.metodo(RUNTIME, "ldi", "(J)V"));
+                    break;
+                case CodigoOperacao.LDR:
+                    codigo.local(EmissorClasse.ALOAD, 1);
+                    codigo.carregarReal(classe, programa.getReais()[par]);
+                    codigo.op2(EmissorClasse.INVOKEVIRTUAL, classe.metodo(RUNTIME, "ldr", "(D)V"));
+                    break;
+                case CodigoOperacao.LDS:
+                    chamarComTexto(codigo, classe, "lds", programa.getTextos()[par]);
+                    break;
+
+                case CodigoOperacao.LDV: chamarComInteiro(codigo, classe, "ldv", par); break;
+                case CodigoOperacao.STR: chamarComInteiro(codigo, classe, "str", par); break;
+                case CodigoOperacao.STK: chamarComInteiro(codigo, classe, "stk", par); break;
+                case CodigoOperacao.CVR: chamarComInteiro(codigo, classe, "cvr", par); break;
+                case CodigoOperacao.REA: chamarComInteiro(codigo, classe, "rea", par); break;
+                case CodigoOperacao.STX: chamar(codigo, classe, "stx", "()V"); break;
+                case CodigoOperacao.LDX: chamar(codigo, classe, "ldx", "()V"); break;
+                case CodigoOperacao.WRT: chamar(codigo, classe, "wrt", "()V"); break;
+
+                case CodigoOperacao.ADD: case CodigoOperacao.SUB: case CodigoOperacao.MUL:
+                case CodigoOperacao.DIV: case CodigoOperacao.MOD: case CodigoOperacao.POW:
+                    chamarComInteiro(codigo, classe, "aritmetica", op);
+                    break;
+
+                case CodigoOperacao.ADDI: case CodigoOperacao.SUBI: case CodigoOperacao.MULI:
+                case CodigoOperacao.MODI: case CodigoOperacao.REMI: case CodigoOperacao.POWI:
+                case CodigoOperacao.ADDR: case CodigoOperacao.SUBR: case CodigoOperacao.MULR: case CodigoOperacao.DIVR:
+                case CodigoOperacao.MODR: case CodigoOperacao.REMR: case CodigoOperacao.POWR:
+                    // O método do runtime tem o nome do mnemônico (addi, powr, ...)
+                    chamar(codigo, classe, CodigoOperacao.mnemonico(op).toLowerCase(), "()V");
+                    break;
+
+                case CodigoOperacao.EQL: case CodigoOperacao.DIF: case CodigoOperacao.SMR:
+                case CodigoOperacao.BGR: case CodigoOperacao.SME: case CodigoOperacao.BGE:
+                    chamarComInteiro(codigo, classe, "relacional", op);
+                    break;
+                case CodigoOperacao.AND: case CodigoOperacao.OR: case CodigoOperacao.NOT:
+                    chamarComInteiro(codigo, classe, "logica", op);
+                    break;
+
+                case CodigoOperacao.JMP:
+                    if (local) {
+                        codigo.desvio(EmissorClasse.GOTO, rotulos[par - inicio]);
+                    } else {
+                        codigo.carregarInteiro(classe, par);
+                        codigo.op(EmissorClasse.IRETURN);
+                    }
+                    break;
+                case CodigoOperacao.JMF:
+                    chamar(codigo, classe, "jmf", "()Z");
+                    if (local) {
+                        codigo.desvio(EmissorClasse.IFNE, rotulos[par - inicio]);
+                    } else {
+                        codigo.desvio(EmissorClasse.IFEQ, rotulos[i + 1 - inicio]);
+                        codigo.carregarInteiro(classe, par);
+                        codigo.op(EmissorClasse.IRETURN);
+                        precisaQuadro = true;
+                    }
+                    break;
+
+                case CodigoOperacao.ALI: case CodigoOperacao.ALR: case CodigoOperacao.ALS: case CodigoOperacao.ALB:
+                    break;
+
+                case CodigoOperacao.INVALIDA:
+                    chamarComTexto(codigo, classe, "naoImplementada", programa.getTextos()[par]);
+                    break;
+
+                default:
+                    // Mesmo comportamento do interpretador para instruções sem implementação
+                    chamarComTexto(codigo, classe, "naoImplementada", CodigoOperacao.mnemonico(op));
+            }
+        }
+
+        // Fim do bloco: segue na primeira instrução do próximo
+        codigo.marcar(rotulos[fim - inicio]);
+        codigo.quadro(locais, pilhaVazia);
+        codigo.carregarInteiro(classe, fim);
+        codigo.op(EmissorClasse.IRETURN);
+        return codigo;
+    }
+
+    // Depois de JMP e STP o verificador da JVM precisa de um quadro na instrução seguinte
+    private static boolean terminaBloco(int op) {
+        return op == CodigoOperacao.JMP || op == CodigoOperacao.STP;
+    }
+
+    private static void chamar(EmissorClasse.Codigo codigo, EmissorClasse classe, String metodo, String descritor) {
+        codigo.local(EmissorClasse.ALOAD, 1);
+        codigo.op2(EmissorClasse.INVOKEVIRTUAL, classe.metodo(RUNTIME, metodo, descritor));
+    }
+
+    private static void chamarComInteiro(EmissorClasse.Codigo codigo, EmissorClasse classe, String metodo, int valor) {
+        codigo.local(EmissorClasse.ALOAD, 1);
+        codigo.carregarInteiro(classe, valor);
+        codigo.op2(EmissorClasse.INVOKEVIRTUAL, classe.metodo(RUNTIME, metodo, "(I)V"));
+    }
+
+    private static void chamarComTexto(EmissorClasse.Codigo codigo, EmissorClasse classe, String metodo, String valor) {
+        codigo.local(EmissorClasse.ALOAD, 1);
+        codigo.carregarTexto(classe, valor);
+        codigo.op2(EmissorClasse.INVOKEVIRTUAL, classe.metodo(RUNTIME, metodo, "(Ljava/lang/String;)V"));
+    }
+}
@@ -0,0 +1,523 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class CompiladorJit {
+
+    // Compila um laço quente (do alvo do desvio para trás até o JMP) para bytecode da JVM,
+    // carregado como classe oculta. As variáveis do laço ficam em variáveis locais da JVM
+    // durante a execução e voltam para a memória da VM na saída.
+
+    // Número de voltas interpretadas antes de tentar compilar o laço
+    public static final int LIMIAR_QUENTE = 1000;
+
+    // Voltas executadas no código compilado antes de devolver o controle ao interpretador, que
+    // confere o tempo limite e a parada pedida: pequeno para o primeiro trecho, ainda sem JIT da JVM
+    private static final int COMBUSTIVEL = 1 << 14;
+
+    private static final int MAX_INSTRUCOES = 1500; // mantém os desvios dentro de 16 bits
+    private static final int MAX_VARIAVEIS = 100;   // mantém os índices de locais abaixo de 256
+
+    private static final String NOME_CLASSE = "LacoJit";
+    private static final String INTERFACE = "CompiladorJit$LacoCompilado";
+    private static final String MEMORIA = "MemoriaDados";
+
+    // Slots fixos do método gerado: this, memória e console
+    private static final int SLOT_MEMORIA = 1;
+    private static final int SLOT_CONSOLE = 2;
+    private static final int PRIMEIRO_SLOT_VARIAVEL = 3;
+
+    // Tipos da pilha abstrata usada na compilação
+    private static final char INTEIRO = 'J';
+    private static final char REAL = 'D';
+    private static final char TEXTO = 'T';
+
+    // Implementada pela classe gerada: executa o laço e devolve a próxima instrução (base 0)
+    public interface LacoCompilado {
+        int executar(MemoriaDados memoria, CanalES console);
+    }
+
+    // Laço compilado junto com os tipos das variáveis que ele assumiu na compilação
+    public static class Laco {
+        // Marca de laço que não compila: fica no interpretador
+        static final Laco NAO_COMPILAVEL = new Laco(null, new int[0], new byte[0]);
+
+        private final LacoCompilado codigo;
+        private final int[] enderecos;
+        private final byte[] tipos;
+
+        private Laco(LacoCompilado codigo, int[] enderecos, byte[] tipos) {
+            this.codigo = codigo;
+            this.enderecos = enderecos;
+            this.tipos = tipos;
+        }
+
+        // O código só vale se as variáveis ainda têm os tipos vistos na compilação
+        public boolean isCompativel(MemoriaDados memoria) {
+            for (int i = 0; i < enderecos.length; i++) {
+                if (memoria.tipo(enderecos[i]) != tipos[i]) return false;
+            }
+            return true;
+        }
+
+        public int executar(MemoriaDados memoria, CanalES console) {
+            return codigo.executar(memoria, console);
+        }
+    }
+
+    private final ProgramaDecodificado programa;
+    private final int inicio;
+    private final int fim;
+    private final EmissorClasse classe = new EmissorClasse(NOME_CLASSE, "java/lang/Object", INTERFACE);
+    private final EmissorClasse.Codigo codigo = new EmissorClasse.Codigo();
+
+    // Variáveis do laço: endereço -> slot local, tipo e se é escrita dentro do laço
+    private final Map<Integer, Integer> slots = new LinkedHashMap<>();
+    private final Map<Integer, Boolean> variavelReal = new HashMap<>();
+    private final Set<Integer> escritas = new LinkedHashSet<>();
+    private int slotTempLongo;
+    private int slotTempReal;
+    private int slotCombustivel;
+    private String[] locais;
+
+    private final int[] rotuloInstrucao;
+    private final Map<Integer, Integer> rotuloSaida = new LinkedHashMap<>();
+    private final int rotuloEpilogo;
+
+    private final List<Character> pilha = new ArrayList<>();
+    private int profundidadeMaxima = 0;
+
+    private CompiladorJit(ProgramaDecodificado programa, int inicio, int fim) {
+        this.programa = programa;
+        this.inicio = inicio;
+        this.fim = fim;
+        this.rotuloInstrucao = new int[fim - inicio + 1];
+        for (int i = 0; i < rotuloInstrucao.length; i++) {
+            rotuloInstrucao[i] = codigo.novoRotulo();
+        }
+        this.rotuloEpilogo = codigo.novoRotulo();
+    }
+
+    // Devolve null se o trecho usa algo que o compilador não cobre (entrada, vetores, texto
+    // fora do show, variáveis não inicializadas); nesse caso o laço continua interpretado.
+    public static Laco compilar(ProgramaDecodificado programa, int inicio, int fim, MemoriaDados memoria) {
+        if (fim - inicio + 1 > MAX_INSTRUCOES) return null;
+        CompiladorJit compilador = new CompiladorJit(programa, inicio, fim);
+        if (!compilador.alocarVariaveis(memoria) || !compilador.gerarCorpo()) return null;
+
+        byte[] bytes = compilador.gerarClasse();
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup().defineHiddenClass(bytes, true);
+            LacoCompilado codigo = (LacoCompilado) lookup
+                    .findConstructor(lookup.lookupClass(), MethodType.methodType(void.class))
+                    .invoke();
+            return compilador.criarLaco(codigo);
+        } catch (Throwable e) {
+            // Classe rejeitada pela JVM: o interpretador continua responsável pelo laço
+            return null;
+        }
+    }
+
+    private Laco criarLaco(LacoCompilado codigo) {
+        int[] enderecos = new int[slots.size()];
+        byte[] tipos = new byte[slots.size()];
+        int i = 0;
+        for (int endereco : slots.keySet()) {
+            enderecos[i] = endereco;
+            tipos[i++] = variavelReal.get(endereco) ? PilhaOperandos.TIPO_REAL : PilhaOperandos.TIPO_INTEIRO;
+        }
+        return new Laco(codigo, enderecos, tipos);
+    }
+
+    // --- VARIÁVEIS ---
+
+    private boolean alocarVariaveis(MemoriaDados memoria) {
+        int[] opcodes = programa.getOpcodes();
+        int[] operandos = programa.getOperandos();
+        int slot = PRIMEIRO_SLOT_VARIAVEL;
+
+        for (int i = inicio; i <= fim; i++) {
+            int op = opcodes[i];
+            if (op != CodigoOperacao.LDV && op != CodigoOperacao.STR && op != CodigoOperacao.STK) continue;
+            int endereco = operandos[i];
+            if (op != CodigoOperacao.LDV) escritas.add(endereco);
+            if (slots.containsKey(endereco)) continue;
+
+            // O tipo de cada variável é o do valor que ela guarda agora
+            byte tipo = memoria.tipo(endereco);
+            if (tipo == PilhaOperandos.TIPO_INTEIRO) {
+                variavelReal.put(endereco, false);
+            } else if (tipo == PilhaOperandos.TIPO_REAL) {
+                variavelReal.put(endereco, true);
+            } else {
+                return false;
+            }
+            if (slots.size() == MAX_VARIAVEIS) return false;
+            slots.put(endereco, slot);
+            slot += 2;
+        }
+
+        slotTempLongo = slot;
+        slotTempReal = slot + 2;
+        slotCombustivel = slot + 4;
+
+        List<String> tipos = new ArrayList<>();
+        tipos.add(NOME_CLASSE);
+        tipos.add(MEMORIA);
+        tipos.add("CanalES");
+        for (int endereco : slots.keySet()) {
+            tipos.add(variavelReal.get(endereco) ? EmissorClasse.TIPO_DOUBLE : EmissorClasse.TIPO_LONG);
+        }
+        tipos.add(EmissorClasse.TIPO_LONG);
+        tipos.add(EmissorClasse.TIPO_DOUBLE);
+        tipos.add(EmissorClasse.TIPO_INT);
+        locais = tipos.toArray(new String[0]);
+        return true;
+    }
+
+    // --- CORPO DO LAÇO ---
+
+    private boolean gerarCorpo() {
+        gerarPrologo();
+
+        int[] opcodes = programa.getOpcodes();
+        int[] operandos = programa.getOperandos();
+
+        for (int i = inicio; i <= fim; i++) {
+            // Alvos de desvio precisam da pilha vazia: é o único estado descrito nos quadros
+            if (programa.isAlvoDeDesvio(i) && !pilha.isEmpty()) return false;
+
+            codigo.marcar(rotuloInstrucao[i - inicio]);
+            if (pilha.isEmpty()) codigo.quadro(locais, new String[0]);
+
+            int op = opcodes[i];
+            int par = operandos[i];
+
+            switch (op) {
+                case CodigoOperacao.LDI:
+                case CodigoOperacao.LDB:
+                    codigo.carregarLongo(classe, par);
+                    empilhar(INTEIRO);
+                    break;
+                case CodigoOperacao.LDR:
+                    codigo.carregarReal(classe, programa.getReais()[par]);
+                    empilhar(REAL);
+                    break;
+                case CodigoOperacao.LDS:
+                    codigo.carregarTexto(classe, programa.getTextos()[par]);
+                    empilhar(TEXTO);
+                    break;
+
+                case CodigoOperacao.LDV: {
+                    boolean real = variavelReal.get(par);
+                    codigo.local(real ? EmissorClasse.DLOAD : EmissorClasse.LLOAD, slots.get(par));
+                    empilhar(real ? REAL : INTEIRO);
+                    break;
+                }
+                case CodigoOperacao.STR:
+                case CodigoOperacao.STK: {
+                    boolean real = variavelReal.get(par);
+                    if (pilha.isEmpty() || topo() != (real ? REAL : INTEIRO)) return false;
+                    if (op == CodigoOperacao.STK) {
+                        codigo.op(EmissorClasse.DUP2);
+                    } else {
+                        desempilhar();
+                    }
+                    codigo.local(real ? EmissorClasse.DSTORE : EmissorClasse.LSTORE, slots.get(par));
+                    break;
+                }
+
+                case CodigoOperacao.CVR:
+                    if (!converterParaReal(par)) return false;
+                    break;
+
+                case CodigoOperacao.ADDI: case CodigoOperacao.SUBI: case CodigoOperacao.MULI:
+                case CodigoOperacao.MODI: case CodigoOperacao.REMI: case CodigoOperacao.POWI:
+                    if (!gerarAritmeticaInteira(op)) return false;
+                    break;
+
+                case CodigoOperacao.ADDR: case CodigoOperacao.SUBR: case CodigoOperacao.MULR: case CodigoOperacao.DIVR:
+                case CodigoOperacao.MODR: case CodigoOperacao.REMR: case CodigoOperacao.POWR:
+                    if (!gerarAritmeticaReal(op)) return false;
+                    break;
+
+                case CodigoOperacao.EQL: case CodigoOperacao.DIF: case CodigoOperacao.SMR:
+                case CodigoOperacao.BGR: case CodigoOperacao.SME: case CodigoOperacao.BGE:
+                    if (!gerarComparacao()) return false;
+                    // Relacional seguido de JMF vira um único desvio condicional da JVM
+                    if (i + 1 <= fim && opcodes[i + 1] == CodigoOperacao.JMF && !programa.isAlvoDeDesvio(i + 1)) {
+                        desempilhar();
+                        if (!pilha.isEmpty()) return false;
+                        codigo.desvio(desvioSeFalso(op), rotulo(operandos[i + 1]));
+                        i++;
+                        codigo.marcar(rotuloInstrucao[i - inicio]);
+                    } else {
+                        gerarResultadoRelacional(op);
+                    }
+                    break;
+
+                case CodigoOperacao.JMF:
+                    if (pilha.isEmpty() || desempilhar() != INTEIRO || !pilha.isEmpty()) return false;
+                    codigo.op(EmissorClasse.LCONST_0);
+                    codigo.op(EmissorClasse.LCMP);
+                    codigo.desvio(EmissorClasse.IFEQ, rotulo(par));
+                    break;
+
+                case CodigoOperacao.JMP:
+                    if (!pilha.isEmpty()) return false;
+                    if (par <= i && par >= inicio) {
+                        // Volta do laço: gasta combustível e, se acabou, devolve ao interpretador
+                        codigo.iinc(slotCombustivel, -1);
+                        codigo.local(EmissorClasse.ILOAD, slotCombustivel);
+                        codigo.desvio(EmissorClasse.IFLE, saida(par));
+                    }
+                    codigo.desvio(EmissorClasse.GOTO, rotulo(par));
+                    break;
+
+                case CodigoOperacao.WRT:
+                    if (pilha.isEmpty()) return false;
+                    gerarEscrita(desempilhar());
+                    break;
+
+                case CodigoOperacao.ALI: case CodigoOperacao.ALR: case CodigoOperacao.ALS: case CodigoOperacao.ALB:
+                    break;
+
+                default:
+                    // REA, vetores, lógicas e instruções genéricas ficam com o interpretador
+                    return false;
+            }
+        }
+
+        // O último JMP sempre desvia; o código seguinte são as saídas e o epílogo
+        for (Map.Entry<Integer, Integer> saida : rotuloSaida.entrySet()) {
+            codigo.marcar(saida.getValue());
+            codigo.quadro(locais, new String[0]);
+            codigo.carregarInteiro(classe, saida.getKey());
+            codigo.desvio(EmissorClasse.GOTO, rotuloEpilogo);
+        }
+        gerarEpilogo();
+        return true;
+    }
+
+    // Carrega as variáveis da memória para os locais e inicializa os auxiliares
+    private void gerarPrologo() {
+        int lerInteiro = classe.metodo(MEMORIA, "inteiro", "(I)J");
+        int lerReal = classe.metodo(MEMORIA, "real", "(I)D");
+        for (Map.Entry<Integer, Integer> variavel : slots.entrySet()) {
+            boolean real = variavelReal.get(variavel.getKey());
+            codigo.local(EmissorClasse.ALOAD, SLOT_MEMORIA);
+            codigo.carregarInteiro(classe, variavel.getKey());
+            codigo.op2(EmissorClasse.INVOKEVIRTUAL, real ? lerReal : lerInteiro);
+            codigo.local(real ? EmissorClasse.DSTORE : EmissorClasse.LSTORE, variavel.getValue());
+        }
+        codigo.op(EmissorClasse.LCONST_0);
+        codigo.local(EmissorClasse.LSTORE, slotTempLongo);
+        codigo.op(EmissorClasse.DCONST_0);
+        codigo.local(EmissorClasse.DSTORE, slotTempReal);
+        codigo.carregarInteiro(classe, COMBUSTIVEL);
+        codigo.local(EmissorClasse.ISTORE, slotCombustivel);
+    }
+
+    // Devolve as variáveis escritas para a memória; a próxima instrução está na pilha da JVM
+    private void gerarEpilogo() {
+        codigo.marcar(rotuloEpilogo);
+        codigo.quadro(locais, new String[] {EmissorClasse.TIPO_INT});
+        int guardarInteiro = classe.metodo(MEMORIA, "guardarInteiro", "(IJ)V");
+        int guardarReal = classe.metodo(MEMORIA, "guardarReal", "(ID)V");
+        for (int endereco : escritas) {
+            boolean real = variavelReal.get(endereco);
+            codigo.local(EmissorClasse.ALOAD, SLOT_MEMORIA);
+            codigo.carregarInteiro(classe, endereco);
+            codigo.local(real ? EmissorClasse.DLOAD : EmissorClasse.LLOAD, slots.get(endereco));
+            codigo.op2(EmissorClasse.INVOKEVIRTUAL, real ? guardarReal : guardarInteiro);
+        }
+        codigo.op(EmissorClasse.IRETURN);
+    }
+
+    // CVR 0 converte o topo; CVR 1, o valor abaixo dele (o topo passa por um local auxiliar)
+    private boolean converterParaReal(int profundidade) {
+        int i = pilha.size() - 1 - profundidade;
+        if (i < 0 || pilha.get(i) == TEXTO || (profundidade == 1 && topo() == TEXTO)) return false;
+        if (pilha.get(i) == REAL) return true;
+
+        if (profundidade == 0) {
+            codigo.op(EmissorClasse.L2D);
+        } else {
+            boolean topoReal = topo() == REAL;
+            codigo.local(topoReal ? EmissorClasse.DSTORE : EmissorClasse.LSTORE, topoReal ? slotTempReal : slotTempLongo);
+            codigo.op(EmissorClasse.L2D);
+            codigo.local(topoReal ? EmissorClasse.DLOAD : EmissorClasse.LLOAD, topoReal ? slotTempReal : slotTempLongo);
+        }
+        pilha.set(i, REAL);
+        return true;
+    }
+
+    private boolean gerarAritmeticaInteira(int op) {
+        if (pilha.size() < 2 || desempilhar() != INTEIRO || desempilhar() != INTEIRO) return false;
+        switch (op) {
+            case CodigoOperacao.ADDI: codigo.op(EmissorClasse.LADD); break;
+            case CodigoOperacao.SUBI: codigo.op(EmissorClasse.LSUB); break;
+            case CodigoOperacao.MULI: codigo.op(EmissorClasse.LMUL); break;
+            case CodigoOperacao.MODI: codigo.op(EmissorClasse.LREM); break;
+            case CodigoOperacao.REMI: codigo.op(EmissorClasse.LDIV); break;
+            default: // POWI
+                codigo.op2(EmissorClasse.INVOKESTATIC, classe.metodo("OperacoesMaquina", "potenciaInteira", "(JJ)J"));
+        }
+        empilhar(INTEIRO);
+        return true;
+    }
+
+    private boolean gerarAritmeticaReal(int op) {
+        if (pilha.size() < 2 || desempilhar() != REAL || desempilhar() != REAL) return false;
+        switch (op) {
+            case CodigoOperacao.ADDR: codigo.op(EmissorClasse.DADD); break;
+            case CodigoOperacao.SUBR: codigo.op(EmissorClasse.DSUB); break;
+            case CodigoOperacao.MULR: codigo.op(EmissorClasse.DMUL); break;
+            case CodigoOperacao.DIVR: codigo.op(EmissorClasse.DDIV); break;
+            case CodigoOperacao.MODR: codigo.op(EmissorClasse.DREM); break;
+            case CodigoOperacao.REMR: // %% real: parte inteira da divisão
+                codigo.op(EmissorClasse.DDIV);
+                codigo.op(EmissorClasse.D2L);
+                codigo.op(EmissorClasse.L2D);
+                break;
+            default: // POWR
+                codigo.op2(EmissorClasse.INVOKESTATIC, classe.metodo("java/lang/Math", "pow", "(DD)D"));
+        }
+        empilhar(REAL);
+        return true;
+    }
+
+    // Deixa na pilha da JVM o int -1/0/1 da comparação (mesmas regras de OperacoesMaquina.relacional)
+    private boolean gerarComparacao() {
+        if (pilha.size() < 2) return false;
+        char b = desempilhar();
+        char a = desempilhar();
+        if (a == TEXTO || b == TEXTO) return false;
+
+        if (a == INTEIRO && b == INTEIRO) {
+            codigo.op(EmissorClasse.LCMP);
+        } else {
+            if (b == INTEIRO) codigo.op(EmissorClasse.L2D);
+            if (a == INTEIRO) {
+                codigo.local(EmissorClasse.DSTORE, slotTempReal);
+                codigo.op(EmissorClasse.L2D);
+                codigo.local(EmissorClasse.DLOAD, slotTempReal);
+            }
+            codigo.op(EmissorClasse.DCMPG); // NaN resulta em 1, como no interpretador
+        }
+        empilhar(INTEIRO);
+        return true;
+    }
+
+    // Desvio tomado quando a comparação é falsa (o JMF desvia no falso)
+    private static int desvioSeFalso(int op) {
+        switch (op) {
+            case CodigoOperacao.EQL: return EmissorClasse.IFNE;
+            case CodigoOperacao.DIF: return EmissorClasse.IFEQ;
+            case CodigoOperacao.SMR: return EmissorClasse.IFGE;
+            case CodigoOperacao.BGR: return EmissorClasse.IFLE;
+            case CodigoOperacao.SME: return EmissorClasse.IFGT;
+            default: return EmissorClasse.IFLT; // BGE
+        }
+    }
+
+    // Converte o -1/0/1 em 0/1 sem desvios (assim não há quadros com a pilha ocupada)
+    private void gerarResultadoRelacional(int op) {
+        switch (op) {
+            case CodigoOperacao.EQL: // 1 - (cmp & 1)
+                codigo.op(EmissorClasse.ICONST_1);
+                codigo.op(EmissorClasse.IAND);
+                codigo.op(EmissorClasse.ICONST_1);
+                codigo.op(EmissorClasse.IXOR);
+                break;
+            case CodigoOperacao.DIF: // cmp & 1
+                codigo.op(EmissorClasse.ICONST_1);
+                codigo.op(EmissorClasse.IAND);
+                break;
+            case CodigoOperacao.SMR: // sinal de cmp
+                codigo.op1(EmissorClasse.BIPUSH, 31);
+                codigo.op(EmissorClasse.IUSHR);
+                break;
+            case CodigoOperacao.BGR: // sinal de -cmp
+                codigo.op(EmissorClasse.INEG);
+                codigo.op1(EmissorClasse.BIPUSH, 31);
+                codigo.op(EmissorClasse.IUSHR);
+                break;
+            case CodigoOperacao.SME: // não BGR
+                codigo.op(EmissorClasse.INEG);
+                codigo.op1(EmissorClasse.BIPUSH, 31);
+                codigo.op(EmissorClasse.IUSHR);
+                codigo.op(EmissorClasse.ICONST_1);
+                codigo.op(EmissorClasse.IXOR);
+                break;
+            default: // BGE: não SMR
+                codigo.op1(EmissorClasse.BIPUSH, 31);
+                codigo.op(EmissorClasse.IUSHR);
+                codigo.op(EmissorClasse.ICONST_1);
+                codigo.op(EmissorClasse.IXOR);
+        }
+        codigo.op(EmissorClasse.I2L);
+    }
+
+    // show: mesmo texto que o interpretador escreve (String.valueOf do valor + quebra de linha)
+    private void gerarEscrita(char tipo) {
+        if (tipo == INTEIRO) {
+            codigo.op2(EmissorClasse.INVOKESTATIC, classe.metodo("java/lang/String", "valueOf", "(J)Ljava/lang/String;"));
+        } else if (tipo == REAL) {
+            codigo.op2(EmissorClasse.INVOKESTATIC, classe.metodo("java/lang/String", "valueOf", "(D)Ljava/lang/String;"));
+        }
+        codigo.carregarTexto(classe, "\n");
+        codigo.op2(EmissorClasse.INVOKEVIRTUAL,
+                classe.metodo("java/lang/String", "concat", "(Ljava/lang/String;)Ljava/lang/String;"));
+        codigo.local(EmissorClasse.ALOAD, SLOT_CONSOLE);
+        codigo.op(EmissorClasse.SWAP);
+        codigo.invokeinterface(classe.metodoInterface("CanalES", "escrever", "(Ljava/lang/String;)V"), 1);
+    }
+
+    // --- RÓTULOS ---
+
+    // Desvio dentro do laço vai direto para a instrução; para fora, passa por uma saída
+    private int rotulo(int destino) {
+        if (destino >= inicio && destino <= fim) return rotuloInstrucao[destino - inicio];
+        return saida(destino);
+    }
+
+    private int saida(int destino) {
+        Integer rotulo = rotuloSaida.get(destino);
+        if (rotulo == null) {
+            rotulo = codigo.novoRotulo();
+            rotuloSaida.put(destino, rotulo);
+        }
+        return rotulo;
+    }
+
+    // --- PILHA ABSTRATA ---
+
+    private void empilhar(char tipo) {
+        pilha.add(tipo);
+        profundidadeMaxima = Math.max(profundidadeMaxima, pilha.size());
+    }
+
+    private char desempilhar() {
+        return pilha.remove(pilha.size() - 1);
+    }
+
+    private char topo() {
+        return pilha.get(pilha.size() - 1);
+    }
+
+    private byte[] gerarClasse() {
+        classe.adicionarConstrutorPadrao("java/lang/Object");
+        // Cada valor da VM ocupa até 2 posições na pilha da JVM; a folga cobre show e epílogo
+        int maxPilha = 2 * profundidadeMaxima + 8;
+        classe.adicionarMetodo(EmissorClasse.ACC_PUBLIC, "executar", "(L" + MEMORIA + ";LCanalES;)I",
+                codigo, maxPilha, slotCombustivel + 1);
+        return classe.gerar();
+    }
+}
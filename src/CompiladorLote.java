@@ -0,0 +1,243 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class CompiladorLote {
+
+    // Compilação em lote pela linha de comando: vários arquivos (ou diretórios inteiros)
+    // compilados em paralelo, um Compilador e um ErrorHandler por tarefa. O código objeto
+    // de cada fonte vai para um .obj ao lado dele, no formato (ptr, OP, param).
+    //
+    //   java CompiladorLote [-O] [-j N] <arquivo-ou-diretório>...
+    //
+    // -O aplica o OtimizadorPeephole; -j define o número de threads (padrão: núcleos da máquina).
+    // Status de saída: 0 se tudo compilou, 1 se algum fonte tem erros, 2 em erro de uso.
+
+    public static final String EXTENSAO_FONTE = ".txt";
+    public static final String EXTENSAO_OBJETO = ".obj";
+
+    // Um Compilador por thread, reaproveitado de um arquivo para o outro (Compilador.reiniciar)
+    private static final ThreadLocal<Compilador> COMPILADORES = ThreadLocal.withInitial(Compilador::new);
+
+    // Resultado de um fonte: erros (vazio se compilou) e número de instruções geradas
+    public static class Resultado {
+        private final Path fonte;
+        private final List<String> erros;
+        private final int instrucoes;
+
+        Resultado(Path fonte, List<String> erros, int instrucoes) {
+            this.fonte = fonte;
+            this.erros = erros;
+            this.instrucoes = instrucoes;
+        }
+
+        public Path getFonte() {
+            return fonte;
+        }
+
+        public List<String> getErros() {
+            return erros;
+        }
+
+        public int getInstrucoes() {
+            return instrucoes;
+        }
+
+        public boolean isSucesso() {
+            return erros.isEmpty();
+        }
+    }
+
+    private CompiladorLote() {
+    }
+
+    public static void main(String[] args) {
+        boolean otimizar = false;
+        int threads = Runtime.getRuntime().availableProcessors();
+        List<Path> entradas = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++) {
+            if ("-O".equals(args[i])) {
+                otimizar = true;
+            } else if ("-j".equals(args[i]) && i + 1 < args.length) {
+                try {
+                    threads = Math.max(1, Integer.parseInt(args[++i]));
+                } catch (NumberFormatException e) {
+                    usoInvalido("Número de threads inválido: " + args[i]);
+                }
+            } else {
+                entradas.add(Paths.get(args[i]));
+            }
+        }
+        if (entradas.isEmpty()) usoInvalido(null);
+
+        List<Path> fontes;
+        try {
+            fontes = listarFontes(entradas);
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("Não foi possível listar os arquivos: " + e.getMessage());
+            System.exit(2);
+            return;
+        }
+        if (fontes.isEmpty()) usoInvalido("Nenhum arquivo " + EXTENSAO_FONTE + " encontrado.");
+
+        long inicio = System.nanoTime();
+        List<Resultado> resultados = compilarTodos(fontes, threads, otimizar);
+        long duracaoMs = (System.nanoTime() - inicio) / 1_000_000;
+
+        int comErros = 0;
+        for (Resultado r : resultados) {
+            if (r.isSucesso()) {
+                System.out.println("OK    " + r.getFonte() + " (" + r.getInstrucoes() + " instruções)");
+            } else {
+                comErros++;
+                System.out.println("ERRO  " + r.getFonte());
+                for (String erro : r.getErros()) {
+                    System.out.println("      - " + erro);
+                }
+            }
+        }
+        System.out.println();
+        System.out.println(resultados.size() + " arquivo(s): " + (resultados.size() - comErros) + " compilado(s), "
+                + comErros + " com erros, em " + duracaoMs + " ms (" + threads + " thread(s)).");
+
+        System.exit(comErros == 0 ? 0 : 1);
+    }
+
+    private static void usoInvalido(String mensagem) {
+        if (mensagem != null) System.err.println(mensagem);
+        System.err.println("Uso: java CompiladorLote [-O] [-j N] <arquivo-ou-diretório>...");
+        System.exit(2);
+    }
+
+    // Arquivos dados diretamente entram como estão; diretórios são percorridos atrás de .txt
+    public static List<Path> listarFontes(List<Path> entradas) throws IOException {
+        List<Path> fontes = new ArrayList<>();
+        for (Path entrada : entradas) {
+            if (Files.isDirectory(entrada)) {
+                try (Stream<Path> arvore = Files.walk(entrada)) {
+                    fontes.addAll(arvore
+                            .filter(Files::isRegularFile)
+                            .filter(p -> p.getFileName().toString().endsWith(EXTENSAO_FONTE))
+                            .sorted()
+                            .collect(Collectors.toList()));
+                }
+            } else {
+                fontes.add(entrada);
+            }
+        }
+        return fontes;
+    }
+
+    // Os resultados voltam na ordem dos fontes, qualquer que seja a ordem de conclusão
+    public static List<Resultado> compilarTodos(List<Path> fontes, int threads, boolean otimizar) {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, fontes.size()));
+        try {
+            List<Future<Resultado>> tarefas = new ArrayList<>();
+            for (Path fonte : fontes) {
+                tarefas.add(executor.submit(() -> compilarArquivo(fonte, otimizar)));
+            }
+            List<Resultado> resultados = new ArrayList<>();
+            for (int i = 0; i < tarefas.size(); i++) {
+                try {
+                    resultados.add(tarefas.get(i).get());
+                } catch (ExecutionException e) {
+                    resultados.add(new Resultado(fontes.get(i),
+                            Collections.singletonList("Erro inesperado: " + e.getCause()), 0));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Compilação interrompida.");
+                }
+            }
+            return resultados;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // Compila um fonte e, se não houver erros, grava o .obj ao lado dele
+    public static Resultado compilarArquivo(Path fonte, boolean otimizar) {
+        CharSequence codigoFonte;
+        try {
+            codigoFonte = FluxoTexto.mapearArquivo(fonte);
+        } catch (IOException e) {
+            return new Resultado(fonte, Collections.singletonList("Não foi possível ler o arquivo: " + e.getMessage()), 0);
+        }
+
+        ErrorHandler errorHandler = new ErrorHandler();
+        List<Instrucao> instrucoes;
+        try {
+            instrucoes = compilarNaThread(codigoFonte, errorHandler);
+        } catch (TokenMgrError e) {
+            return new Resultado(fonte, Collections.singletonList("Erro léxico fatal: " + e.getMessage()), 0);
+        }
+        if (errorHandler.hasErrors()) {
+            return new Resultado(fonte, errorHandler.getErrorMessages(), 0);
+        }
+        if (otimizar) instrucoes = OtimizadorPeephole.otimizar(instrucoes);
+
+        StringBuilder codigoObjeto = new StringBuilder();
+        for (Instrucao inst : instrucoes) {
+            codigoObjeto.append(inst.toString()).append("\n");
+        }
+        try {
+            Files.write(destino(fonte), codigoObjeto.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException | InvalidPathException e) {
+            return new Resultado(fonte, Collections.singletonList("Não foi possível gravar o código objeto: " + e.getMessage()), 0);
+        }
+        return new Resultado(fonte, Collections.emptyList(), instrucoes.size());
+    }
+
+    // Mesmas fases da IDE: análise léxica completa (uma passada) e, sem erros léxicos, o parser
+    // sobre os mesmos tokens. Devolve as instruções geradas (só válidas se não houver erros).
+    public static List<Instrucao> compilar(CharSequence codigoFonte, ErrorHandler errorHandler) throws TokenMgrError {
+        List<Token> tokens = Compilador.analisarLexico(codigoFonte, errorHandler);
+        if (errorHandler.hasErrors()) return Collections.emptyList();
+        return compilar(tokens, errorHandler);
+    }
+
+    // Só o parser, sobre tokens já analisados (e sem erros léxicos)
+    public static List<Instrucao> compilar(List<Token> tokens, ErrorHandler errorHandler) {
+        Compilador analisadorSintatico = new Compilador(tokens, errorHandler);
+        try {
+            analisadorSintatico.programa();
+        } catch (ParseException e) {
+            errorHandler.processParseException(e, "na estrutura principal do programa");
+        }
+        return analisadorSintatico.getInstrucoes();
+    }
+
+    // Como compilar(CharSequence), no Compilador da thread: a lista devolvida só vale até a
+    // próxima compilação nesta thread
+    private static List<Instrucao> compilarNaThread(CharSequence codigoFonte, ErrorHandler errorHandler) throws TokenMgrError {
+        Compilador compilador = COMPILADORES.get();
+        compilador.reiniciar(codigoFonte, errorHandler);
+        if (errorHandler.hasErrors()) return Collections.emptyList();
+        try {
+            compilador.programa();
+        } catch (ParseException e) {
+            errorHandler.processParseException(e, "na estrutura principal do programa");
+        }
+        return compilador.getInstrucoes();
+    }
+
+    private static Path destino(Path fonte) {
+        String nome = fonte.getFileName().toString();
+        int ponto = nome.lastIndexOf('.');
+        String base = (ponto > 0) ? nome.substring(0, ponto) : nome;
+        return fonte.resolveSibling(base + EXTENSAO_OBJETO);
+    }
+}
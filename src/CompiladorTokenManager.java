@@ -3,6 +3,7 @@ import java.io.*;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Stack;
+import java.util.function.IntSupplier;
 
 /** Token Manager. */
 public class CompiladorTokenManager implements CompiladorConstants
@@ -13,6 +13,8 @@ import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class CompilerInterface extends JFrame {
 
@@ -36,7 +38,39 @@ public class CompilerInterface extends JFrame {
     private Object marcaLinhaAtual;
     private final Highlighter.HighlightPainter pincelLinhaAtual =
             new DefaultHighlighter.DefaultHighlightPainter(new Color(235, 242, 252));
+    // Mapa de calor do perfil de execução: um pincel por faixa de tempo, da linha fria à mais quente
+    private static final int NIVEIS_CALOR = 8;
+    private final Highlighter.HighlightPainter[] pinceisCalor = criarPinceisCalor();
+    private final java.util.List<Object> marcasCalor = new java.util.ArrayList<>();
     private JanelaCodigoObjeto janelaCodigoObjeto;
+    // Execução em andamento (null quando não há nenhuma): o botão Parar age sobre ela
+    private MaquinaVirtual vmEmExecucao;
+    private Thread threadExecucao;
+    private JButton botaoParar;
+    private JMenuItem itemParar;
+    private JCheckBoxMenuItem itemOtimizar;
+    private JCheckBoxMenuItem itemSuperinstrucoes;
+    private JCheckBoxMenuItem itemJit;
+    private JCheckBoxMenuItem itemNos;
+    private JCheckBoxMenuItem itemPerfil;
+    private JCheckBoxMenuItem itemVerificarAoDigitar;
+
+    // Verificação em segundo plano: roda ATRASO_VERIFICACAO_MS depois da última edição, numa
+    // thread de trabalho; uma edição nova descarta a verificação em andamento (versaoTexto)
+    private static final int ATRASO_VERIFICACAO_MS = 500;
+    private Timer timerVerificacao;
+    // Uma verificação por vez: as canceladas que ainda estão na fila terminam sem analisar nada,
+    // e só a que já começou pode terminar o parser à toa (ele não atende interrupção)
+    private final ExecutorService executorVerificacao = Executors.newSingleThreadExecutor(tarefa -> {
+        Thread thread = new Thread(tarefa, "Verificação automática");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private SwingWorker<List<String>, Void> verificacaoEmAndamento;
+    private int versaoTexto = 0;
+    private String ultimoTextoVerificado;
+    // Tokens do editor mantidos a cada edição: a verificação só roda o parser
+    private final LexicoIncremental lexicoEditor = new LexicoIncremental("");
 
     public CompilerInterface() {
         configurarJanela();
@@ -45,6 +79,7 @@ public class CompilerInterface extends JFrame {
         configurarMenus();
         configurarBarraFerramentas();
         configurarBarraStatus();
+        configurarVerificacaoAutomatica();
         this.janelaCodigoObjeto = new JanelaCodigoObjeto();
         adicionarOuvinteFechamento();
         atualizarTituloJanela(null);
@@ -68,9 +103,11 @@ public class CompilerInterface extends JFrame {
         areaEdicao.setSelectionColor(new Color(197, 222, 255));
         areaEdicao.setMargin(new Insets(8, 12, 8, 12));
         areaEdicao.setTabSize(4);
+        areaEdicao.getDocument().addDocumentListener(new OuvinteLexico());
         areaEdicao.getDocument().addDocumentListener(new OuvinteDocumentoSimples(() -> {
             arquivoModificado = true;
             atualizarStatus("Editando...");
+            agendarVerificacao();
         }));
 
         areaMensagens = new JTextArea();
@@ -170,8 +207,33 @@ public class CompilerInterface extends JFrame {
         menuCompilacao.setMnemonic(KeyEvent.VK_C);
         JMenuItem itemCompilar = criarItemMenu("Compilar", KeyEvent.VK_P, KeyStroke.getKeyStroke(KeyEvent.VK_F9, 0));
         JMenuItem itemExecutar = criarItemMenu("Executar", KeyEvent.VK_E, KeyStroke.getKeyStroke(KeyEvent.VK_F10, 0));
+        itemParar = criarItemMenu("Parar execução", KeyEvent.VK_A, KeyStroke.getKeyStroke(KeyEvent.VK_F10, ActionEvent.SHIFT_MASK));
+        itemParar.setEnabled(false);
+        JMenuItem itemGerarExecutavel = new JMenuItem("Gerar executável (.jar)...", KeyEvent.VK_G);
+        itemOtimizar = new JCheckBoxMenuItem("Otimizar código objeto (peephole)");
+        itemOtimizar.setMnemonic(KeyEvent.VK_O);
+        itemSuperinstrucoes = new JCheckBoxMenuItem("Executar com superinstruções");
+        itemSuperinstrucoes.setMnemonic(KeyEvent.VK_S);
+        itemJit = new JCheckBoxMenuItem("Compilar laços quentes (JIT)", true);
+        itemJit.setMnemonic(KeyEvent.VK_J);
+        itemNos = new JCheckBoxMenuItem("Executar com nós pré-ligados");
+        itemNos.setMnemonic(KeyEvent.VK_N);
+        itemPerfil = new JCheckBoxMenuItem("Executar com perfil (linhas quentes)");
+        itemPerfil.setMnemonic(KeyEvent.VK_F);
+        itemVerificarAoDigitar = new JCheckBoxMenuItem("Verificar erros ao digitar", true);
+        itemVerificarAoDigitar.setMnemonic(KeyEvent.VK_V);
         menuCompilacao.add(itemCompilar);
         menuCompilacao.add(itemExecutar);
+        menuCompilacao.add(itemParar);
+        menuCompilacao.add(itemGerarExecutavel);
+        menuCompilacao.addSeparator();
+        menuCompilacao.add(itemOtimizar);
+        menuCompilacao.add(itemSuperinstrucoes);
+        menuCompilacao.add(itemJit);
+        menuCompilacao.add(itemNos);
+        menuCompilacao.add(itemPerfil);
+        menuCompilacao.addSeparator();
+        menuCompilacao.add(itemVerificarAoDigitar);
 
         barraMenu.add(menuArquivo);
         barraMenu.add(menuEdicao);
@@ -189,6 +251,12 @@ public class CompilerInterface extends JFrame {
         itemLimparConsole.addActionListener(e -> limparConsole());
         itemCompilar.addActionListener(e -> acaoCompilar());
         itemExecutar.addActionListener(e -> acaoExecutar());
+        itemParar.addActionListener(e -> acaoParar());
+        itemGerarExecutavel.addActionListener(e -> acaoGerarExecutavel());
+        itemVerificarAoDigitar.addActionListener(e -> {
+            if (itemVerificarAoDigitar.isSelected()) agendarVerificacao();
+            else cancelarVerificacao();
+        });
     }
 
     private JMenuItem criarItemMenu(String texto, int mnemonico, KeyStroke atalho) {
@@ -216,6 +284,8 @@ public class CompilerInterface extends JFrame {
         JButton botaoColar = criarBotaoBarra("Colar (Ctrl+V)", criarIconeColar());
         JButton botaoCompilar = criarBotaoBarra("Compilar (F9)", criarIconeMartelo());
         JButton botaoExecutar = criarBotaoBarra("Executar (F10)", criarIconeExecutar());
+        botaoParar = criarBotaoBarra("Parar execução (Shift+F10)", criarIconeParar());
+        botaoParar.setEnabled(false);
         JButton botaoLimpar = criarBotaoBarra("Limpar console", criarIconeBoia());
 
         botaoNovo.addActionListener(e -> acaoNovoArquivo());
@@ -226,6 +296,7 @@ public class CompilerInterface extends JFrame {
         botaoColar.addActionListener(e -> areaEdicao.paste());
         botaoCompilar.addActionListener(e -> acaoCompilar());
         botaoExecutar.addActionListener(e -> acaoExecutar());
+        botaoParar.addActionListener(e -> acaoParar());
         botaoLimpar.addActionListener(e -> limparConsole());
 
         barraFerramentas.add(botaoNovo);
@@ -238,6 +309,7 @@ public class CompilerInterface extends JFrame {
         barraFerramentas.addSeparator(new Dimension(12, 0));
         barraFerramentas.add(botaoCompilar);
         barraFerramentas.add(botaoExecutar);
+        barraFerramentas.add(botaoParar);
         barraFerramentas.add(Box.createHorizontalGlue());
         barraFerramentas.add(botaoLimpar);
 
@@ -438,6 +510,7 @@ public class CompilerInterface extends JFrame {
     }
 
     private void limparInterface() {
+        limparMapaCalor();
         areaEdicao.setText("");
         areaMensagens.setText("");
         caminhoArquivoAtual = null;
@@ -496,8 +569,145 @@ public class CompilerInterface extends JFrame {
         }
     }
 
+    // --- PERFIL DE EXECUÇÃO ---
+
+    private static Highlighter.HighlightPainter[] criarPinceisCalor() {
+        Color frio = new Color(255, 246, 214);
+        Color quente = new Color(246, 150, 128);
+        Highlighter.HighlightPainter[] pinceis = new Highlighter.HighlightPainter[NIVEIS_CALOR];
+        for (int i = 0; i < NIVEIS_CALOR; i++) {
+            float f = (float) i / (NIVEIS_CALOR - 1);
+            pinceis[i] = new DefaultHighlighter.DefaultHighlightPainter(new Color(
+                    Math.round(frio.getRed() + f * (quente.getRed() - frio.getRed())),
+                    Math.round(frio.getGreen() + f * (quente.getGreen() - frio.getGreen())),
+                    Math.round(frio.getBlue() + f * (quente.getBlue() - frio.getBlue()))));
+        }
+        return pinceis;
+    }
+
+    private void limparMapaCalor() {
+        Highlighter realcador = areaEdicao.getHighlighter();
+        for (Object marca : marcasCalor) {
+            realcador.removeHighlight(marca);
+        }
+        marcasCalor.clear();
+    }
+
+    // Relatório no painel de mensagens e cada linha executada pintada conforme o seu tempo
+    private void mostrarPerfil(PerfilExecucao perfil) {
+        areaMensagens.setText(perfil.relatorio());
+        limparMapaCalor();
+
+        long[] tempoLinha = perfil.getTempoLinha();
+        long maior = 0;
+        for (int linha = 1; linha < tempoLinha.length; linha++) {
+            maior = Math.max(maior, tempoLinha[linha]);
+        }
+        if (maior == 0) return;
+
+        Highlighter realcador = areaEdicao.getHighlighter();
+        for (int linha = 1; linha < tempoLinha.length && linha <= areaEdicao.getLineCount(); linha++) {
+            if (tempoLinha[linha] == 0) continue;
+            int nivel = (int) Math.min(NIVEIS_CALOR - 1, tempoLinha[linha] * NIVEIS_CALOR / maior);
+            try {
+                int inicio = areaEdicao.getLineStartOffset(linha - 1);
+                int fim = areaEdicao.getLineEndOffset(linha - 1);
+                marcasCalor.add(realcador.addHighlight(inicio, fim, pinceisCalor[nivel]));
+            } catch (BadLocationException ex) {
+            }
+        }
+    }
+
+    // --- VERIFICAÇÃO AUTOMÁTICA ---
+
+    private void configurarVerificacaoAutomatica() {
+        timerVerificacao = new Timer(ATRASO_VERIFICACAO_MS, e -> iniciarVerificacao());
+        timerVerificacao.setRepeats(false);
+    }
+
+    // Chamado a cada edição: reinicia a contagem e invalida a verificação em andamento
+    private void agendarVerificacao() {
+        versaoTexto++;
+        if (verificacaoEmAndamento != null) {
+            verificacaoEmAndamento.cancel(true);
+            verificacaoEmAndamento = null;
+        }
+        if (timerVerificacao != null && itemVerificarAoDigitar != null && itemVerificarAoDigitar.isSelected()) {
+            timerVerificacao.restart();
+        }
+    }
+
+    private void cancelarVerificacao() {
+        timerVerificacao.stop();
+        if (verificacaoEmAndamento != null) {
+            verificacaoEmAndamento.cancel(true);
+            verificacaoEmAndamento = null;
+        }
+    }
+
+    private void iniciarVerificacao() {
+        String codigoFonte = areaEdicao.getText();
+        // Texto igual ao da última verificação (ex.: edição desfeita): o resultado já está na tela
+        if (codigoFonte.trim().isEmpty() || codigoFonte.equals(ultimoTextoVerificado)) return;
+
+        // Cópia feita aqui, no EDT: o LexicoIncremental continua mudando com as próximas edições
+        final List<Token> tokens;
+        try {
+            tokens = lexicoEditor.copiarTokens();
+        } catch (TokenMgrError e) {
+            mostrarDiagnosticos(java.util.Collections.singletonList("Erro léxico fatal: " + e.getMessage()));
+            ultimoTextoVerificado = codigoFonte;
+            return;
+        }
+
+        final int versao = versaoTexto;
+        verificacaoEmAndamento = new SwingWorker<List<String>, Void>() {
+            @Override
+            protected List<String> doInBackground() {
+                ErrorHandler errorHandler = new ErrorHandler();
+                Compilador.registrarErrosLexicos(tokens, errorHandler);
+                if (isCancelled()) return errorHandler.getErrorMessages(); // Texto mudou: não analisa
+                if (!errorHandler.hasErrors()) CompiladorLote.compilar(tokens, errorHandler);
+                return errorHandler.getErrorMessages();
+            }
+
+            @Override
+            protected void done() {
+                // Resultado de um texto que já mudou: descartado
+                if (isCancelled() || versao != versaoTexto) return;
+                verificacaoEmAndamento = null;
+                try {
+                    mostrarDiagnosticos(get());
+                    ultimoTextoVerificado = codigoFonte;
+                } catch (Exception e) {
+                    atualizarStatus("Falha na verificação automática");
+                }
+            }
+        };
+        atualizarStatus("Verificando...");
+        executorVerificacao.execute(verificacaoEmAndamento);
+    }
+
+    private void mostrarDiagnosticos(List<String> erros) {
+        if (erros.isEmpty()) {
+            areaMensagens.setText("Verificação automática: nenhum erro encontrado.\n");
+            atualizarStatus("Sem erros");
+            return;
+        }
+        StringBuilder saidaErros = new StringBuilder();
+        saidaErros.append("Verificação automática: foram encontrados erros:\n\n");
+        for (String erro : erros) {
+            saidaErros.append("- ").append(erro).append("\n");
+        }
+        areaMensagens.setText(saidaErros.toString());
+        atualizarStatus(erros.size() + " erro(s) encontrado(s)");
+    }
+
     private void acaoCompilar() {
+        cancelarVerificacao(); // A compilação completa substitui a verificação pendente
+        limparMapaCalor();
         String codigoFonte = areaEdicao.getText();
+        ultimoTextoVerificado = codigoFonte;
         if (codigoFonte.trim().isEmpty()) {
             areaMensagens.setText("O código-fonte está vazio.\n");
             atualizarStatus("Nada para compilar");
@@ -509,24 +719,14 @@ public class CompilerInterface extends JFrame {
 
         ErrorHandler errorHandler = new ErrorHandler();
 
-        // --- ANÁLISE LÉXICA ---
-        Compilador analisadorLexico = new Compilador(new StringReader(codigoFonte), errorHandler);
+        // --- ANÁLISE LÉXICA (única passada: os tokens são reaproveitados pelo parser) ---
+        java.util.List<Token> tokens;
         try {
-            Token t;
-            do {
-                t = analisadorLexico.token_source.getNextToken();
-                if (t.kind >= 0 && (
-                        (t.kind >= CompiladorConstants.ERRO_REAL_FRACAO_LONGA &&
-                                t.kind <= CompiladorConstants.ERRO_ID_TERMINA_COM_DIGITO) ||
-                                t.kind == CompiladorConstants.ERRO_LEXICO) ||
-                                t.kind == CompiladorConstants.ERRO_STRING_NAO_FINALIZADA)
-                 {
-                    errorHandler.processLexicalError(t, "");
-                }
-            } while (t.kind != CompiladorConstants.EOF);
-
+            tokens = Compilador.analisarLexico(codigoFonte, errorHandler);
         } catch (TokenMgrError e) {
-            errorHandler.addError("Léxico Fatal", 0, 0, e.getMessage());
+            areaMensagens.setText("Erro léxico fatal: " + e.getMessage() + "\n");
+            atualizarStatus("Erro na compilação - Léxico");
+            return;
         } catch (Exception e) {
             areaMensagens.setText("ERRO INESPERADO DURANTE A ANÁLISE LÉXICA:\n\n" + e.getMessage());
             atualizarStatus("Erro na compilação");
@@ -545,7 +745,7 @@ public class CompilerInterface extends JFrame {
             return;
         }
 
-        Compilador analisadorSintatico = new Compilador(new StringReader(codigoFonte), errorHandler);
+        Compilador analisadorSintatico = new Compilador(tokens, errorHandler);
         try {
             analisadorSintatico.programa();
         } catch (ParseException e) {
@@ -569,12 +769,21 @@ public class CompilerInterface extends JFrame {
             areaMensagens.setText("Análise léxica e sintática concluída com sucesso!\n");
             atualizarStatus("Compilação concluída");
 
-            String codigoGerado = analisadorSintatico.getCodigoGerado();
+            java.util.List<Instrucao> instrucoes = analisadorSintatico.getInstrucoes();
 
-            preencherCodigoObjeto(codigoGerado);
+            // Passo opcional de otimização: a tabela e a execução usam o código otimizado
+            if (itemOtimizar.isSelected()) {
+                instrucoes = OtimizadorPeephole.otimizar(instrucoes);
+            }
+
+            // A tabela lê as instruções direto da lista (sem formatar e reinterpretar texto);
+            // programa sem instruções aparece como um único STP, como na VM
+            janelaCodigoObjeto.setInstrucoes(instrucoes.isEmpty()
+                    ? java.util.Collections.singletonList(new Instrucao(0, "STP", "0"))
+                    : instrucoes);
 
 
-            this.instrucoesCompiladas = analisadorSintatico.getInstrucoes();            
+            this.instrucoesCompiladas = instrucoes;            
             janelaCodigoObjeto.setVisible(true);
             janelaCodigoObjeto.toFront();
             
@@ -604,52 +813,78 @@ private void acaoExecutar() {
 
         // 2. Cria o console se não existir
         ConsoleExecucao console = new ConsoleExecucao();
+
+        // 3. Carrega o programa (decodifica e valida os desvios) antes de abrir o console
+        MaquinaVirtual vm;
+        try {
+            vm = new MaquinaVirtual(this.instrucoesCompiladas, console);
+            vm.setSuperinstrucoes(itemSuperinstrucoes.isSelected());
+            vm.setJit(itemJit.isSelected());
+            vm.setNos(itemNos.isSelected());
+            vm.setPerfil(itemPerfil.isSelected());
+        } catch (IllegalArgumentException e) {
+            JOptionPane.showMessageDialog(this, "Código objeto inválido: " + e.getMessage(), "Erro", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
         console.setVisible(true);
 
-        // 3. Cria e roda a VM em uma Thread separada (para não travar a tela)
-        MaquinaVirtual vm = new MaquinaVirtual(this.instrucoesCompiladas, console);
-        new Thread(vm).start();
+        // 4. Roda a VM em uma Thread separada (para não travar a tela); com perfil, o
+        //    relatório e o mapa de calor aparecem no fim da execução
+        limparMapaCalor();
+        Thread thread = new Thread(() -> {
+            vm.run();
+            SwingUtilities.invokeLater(() -> execucaoTerminou(vm));
+        });
+        vmEmExecucao = vm;
+        threadExecucao = thread;
+        botaoParar.setEnabled(true);
+        itemParar.setEnabled(true);
+        thread.start();
         
         atualizarStatus("Executando...");
     }
 
-    private void preencherCodigoObjeto(String codigo) {
-        janelaCodigoObjeto.limparTabela();
+    // Parada cooperativa: a VM encerra no próximo fim de volta de laço; a interrupção
+    // acorda a thread se ela estiver esperando uma leitura no console
+    private void acaoParar() {
+        if (vmEmExecucao == null) return;
+        vmEmExecucao.parar();
+        threadExecucao.interrupt();
+        atualizarStatus("Parando a execução...");
+    }
+
+    private void execucaoTerminou(MaquinaVirtual vm) {
+        if (vm != vmEmExecucao) return; // Uma execução mais nova já ocupa os botões
+        vmEmExecucao = null;
+        threadExecucao = null;
+        botaoParar.setEnabled(false);
+        itemParar.setEnabled(false);
+        atualizarStatus("Execução: " + vm.getStatus().getDescricao());
+        if (vm.getPerfil() != null) mostrarPerfil(vm.getPerfil());
+    }
 
-        if (codigo == null || codigo.trim().isEmpty()) {
-            janelaCodigoObjeto.adicionarLinha("0", "STP", "0");
+    // Compila o código objeto atual para um .jar executável (java -jar), sem a VM
+    private void acaoGerarExecutavel() {
+        if (this.instrucoesCompiladas == null || this.instrucoesCompiladas.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "Por favor, compile o código com sucesso antes de gerar o executável.", "Aviso", JOptionPane.WARNING_MESSAGE);
             return;
         }
 
-        //Divide o código em linhas
-        String[] linhas = codigo.split("\n");
-
-        // Itera sobre cada linha e adiciona na tabela
-        for (String linha : linhas) {
-            String linhaLimpa = linha.trim();
-
-            // Pula linhas que não parecem ser código (em branco ou sem parênteses)
-            if (linhaLimpa.isEmpty() || !linhaLimpa.startsWith("(") || !linhaLimpa.endsWith(")")) {
-                continue;
-            }
-
-            try {
-                // Remove os parênteses"
-                String content = linhaLimpa.substring(1, linhaLimpa.length() - 1);
-
-                String[] partes = content.split(",", 3);
-
-                if (partes.length == 3) {
-                    String endereco = partes[0].trim();
-                    String instrucao = partes[1].trim().toUpperCase();
-                    String parametro = partes[2].trim();
+        JFileChooser seletorJar = new JFileChooser(seletorArquivos.getCurrentDirectory());
+        seletorJar.setSelectedFile(new File(CompiladorAot.NOME_CLASSE_PADRAO + ".jar"));
+        if (seletorJar.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        File arquivo = seletorJar.getSelectedFile();
+        if (!arquivo.getName().toLowerCase().endsWith(".jar")) {
+            arquivo = new File(arquivo.getAbsolutePath() + ".jar");
+        }
 
-                    // Adiciona na tabela
-                    janelaCodigoObjeto.adicionarLinha(endereco, instrucao, parametro);
-                }
-            } catch (Exception e) {
-                System.err.println("Erro ao parsear linha do código objeto: " + linhaLimpa);
-            }
+        try {
+            CompiladorAot.gravarJar(this.instrucoesCompiladas, CompiladorAot.NOME_CLASSE_PADRAO, arquivo.toPath());
+            atualizarStatus("Executável gerado: " + arquivo.getName());
+        } catch (IOException | IllegalArgumentException | IllegalStateException e) {
+            JOptionPane.showMessageDialog(this, "Não foi possível gerar o executável: " + e.getMessage(), "Erro", JOptionPane.ERROR_MESSAGE);
         }
     }
 
@@ -808,6 +1043,21 @@ private void acaoExecutar() {
         return new ImageIcon(imagem);
     }
 
+    private Icon criarIconeParar() {
+        BufferedImage imagem = criarImagemBase();
+        Graphics2D g2 = imagem.createGraphics();
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2.setColor(new Color(236, 112, 99));
+        g2.fillOval(7, 7, 16, 16);
+        g2.setColor(new Color(192, 72, 62));
+        g2.setStroke(new BasicStroke(1.5f));
+        g2.drawOval(7, 7, 16, 16);
+        g2.setColor(Color.WHITE);
+        g2.fillRect(12, 12, 6, 6);
+        g2.dispose();
+        return new ImageIcon(imagem);
+    }
+
     private Icon criarIconeBoia() {
         BufferedImage imagem = criarImagemBase();
         Graphics2D g2 = imagem.createGraphics();
@@ -851,6 +1101,28 @@ private void acaoExecutar() {
         }
     }
 
+    // Repassa cada edição do editor ao LexicoIncremental, que reanalisa só a região alterada
+    private class OuvinteLexico implements DocumentListener {
+        @Override
+        public void insertUpdate(DocumentEvent e) {
+            try {
+                lexicoEditor.inserir(e.getOffset(), e.getDocument().getText(e.getOffset(), e.getLength()));
+            } catch (BadLocationException ex) {
+                // Não acontece: o trecho acabou de ser inserido
+            }
+        }
+
+        @Override
+        public void removeUpdate(DocumentEvent e) {
+            lexicoEditor.remover(e.getOffset(), e.getLength());
+        }
+
+        @Override
+        public void changedUpdate(DocumentEvent e) {
+            // Só atributos mudaram
+        }
+    }
+
     private class AdaptadorFechamentoJanela extends WindowAdapter {
         @Override
         public void windowClosing(WindowEvent e) {
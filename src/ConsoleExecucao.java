@@ -2,12 +2,29 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
 
-public class ConsoleExecucao extends JFrame {
+public class ConsoleExecucao extends JFrame implements CanalES {
     private JTextArea areaSaida;
+
+    // Saída da VM: o texto vira lotes numa fila limitada, que um Timer do Swing esvazia
+    // (um append por tique). A VM nunca espera pela tela: com a fila cheia, o lote mais
+    // antigo é descartado e vira um aviso. O documento guarda só as últimas linhas.
+    private static final int LIMITE_LOTE = 8192;
+    private static final int CAPACIDADE_FILA = 64;
+    private static final int INTERVALO_TIMER_MS = 50;
+    private static final int MAX_LINHAS = 10000;
+    private static final int MAX_CARACTERES = 1 << 20;
+
+    private final StringBuilder pendente = new StringBuilder(); // Lote em formação (thread da VM)
+    private final BlockingQueue<String> filaSaida = new ArrayBlockingQueue<>(CAPACIDADE_FILA);
+    private final AtomicLong caracteresOmitidos = new AtomicLong();
+    private final Timer timerSaida;
     
     // Variáveis para controlar a leitura de dados
-    private boolean aguardandoInput = false;
+    private volatile boolean aguardandoInput = false;
     private int posicaoInicialInput = 0;
     private String inputCapturado = "";
     private final Object lockInput = new Object(); // Trava para pausar a VM
@@ -53,21 +70,119 @@ public class ConsoleExecucao extends JFrame {
 
         JScrollPane scroll = new JScrollPane(areaSaida);
         add(scroll, BorderLayout.CENTER);
+
+        timerSaida = new Timer(INTERVALO_TIMER_MS, e -> drenarSaida());
+        timerSaida.start();
     }
 
+    @Override
+    public void dispose() {
+        timerSaida.stop();
+        super.dispose();
+    }
+
+    @Override
     public void escrever(String texto) {
-        areaSaida.append(texto);
-        areaSaida.setCaretPosition(areaSaida.getDocument().getLength());
+        synchronized (pendente) {
+            pendente.append(texto);
+            if (pendente.length() >= LIMITE_LOTE) enfileirarPendente();
+        }
     }
 
+    // Fecha o lote em formação; o Timer o mostra no próximo tique
+    @Override
+    public void descarregar() {
+        synchronized (pendente) {
+            enfileirarPendente();
+        }
+    }
+
+    @Override
     public void limpar() {
-        areaSaida.setText("");
+        synchronized (pendente) {
+            pendente.setLength(0);
+            filaSaida.clear();
+            caracteresOmitidos.set(0);
+        }
+        SwingUtilities.invokeLater(() -> areaSaida.setText(""));
+    }
+
+    // Chamado com o lock de 'pendente'
+    private void enfileirarPendente() {
+        if (pendente.length() == 0) return;
+        String lote = pendente.toString();
+        pendente.setLength(0);
+        while (!filaSaida.offer(lote)) {
+            String descartado = filaSaida.poll();
+            if (descartado != null) caracteresOmitidos.addAndGet(descartado.length());
+        }
+    }
+
+    // Thread do Swing: junta os lotes da fila num só append e apara o início do documento
+    private void drenarSaida() {
+        descarregar(); // O que a VM escreveu desde o último tique também aparece
+        if (filaSaida.isEmpty()) return;
+
+        StringBuilder texto = new StringBuilder();
+        long omitidos = caracteresOmitidos.getAndSet(0);
+        if (omitidos > 0) {
+            texto.append("\n[... ").append(omitidos).append(" caracteres omitidos ...]\n");
+        }
+        String lote;
+        while ((lote = filaSaida.poll()) != null) {
+            texto.append(lote);
+        }
+        areaSaida.append(texto.toString());
+        apararDocumento();
+        areaSaida.setCaretPosition(areaSaida.getDocument().getLength());
+    }
+
+    // Descarta as linhas mais antigas acima de MAX_LINHAS (e o excesso de caracteres)
+    private void apararDocumento() {
+        try {
+            int remover = 0;
+            int linhasAMais = areaSaida.getLineCount() - MAX_LINHAS;
+            if (linhasAMais > 0) remover = areaSaida.getLineStartOffset(linhasAMais);
+            remover = Math.max(remover, areaSaida.getDocument().getLength() - MAX_CARACTERES);
+            if (remover > 0) {
+                areaSaida.getDocument().remove(0, remover);
+                posicaoInicialInput = Math.max(0, posicaoInicialInput - remover);
+            }
+        } catch (Exception e) { /* Ignora erro de UI */ }
     }
 
     /**
      * Método BLOQUEANTE que pausa a thread da VM até o usuário digitar Enter.
      */
+    @Override
     public String ler() {
+        // O que já foi escrito aparece antes da pergunta: a preparação roda na thread do Swing
+        // e esvazia a fila antes de liberar a digitação
+        aguardandoInput = true;
+        SwingUtilities.invokeLater(this::prepararInput);
+
+        // Pausa a thread da VM e espera o ENTER
+        synchronized (lockInput) {
+            try {
+                while (aguardandoInput) {
+                    lockInput.wait(); // A VM dorme aqui
+                }
+            } catch (InterruptedException e) {
+                // Parada pedida (MaquinaVirtual.parar): a leitura termina como fim da entrada
+                Thread.currentThread().interrupt();
+                aguardandoInput = false;
+                SwingUtilities.invokeLater(() -> areaSaida.setEditable(false)); // Depois do prepararInput
+                return null;
+            }
+        }
+
+        // Retorna o que foi digitado
+        return inputCapturado;
+    }
+
+    private void prepararInput() {
+        drenarSaida();
+
         // --- TRUQUE VISUAL: Remove o último \n para digitar na mesma linha ---
         try {
             int tam = areaSaida.getDocument().getLength();
@@ -81,8 +196,7 @@ public class ConsoleExecucao extends JFrame {
         } catch (Exception e) { /* Ignora erro de UI */ }
         // ---------------------------------------------------------------------
 
-        // 1. Prepara o console para digitar
-        aguardandoInput = true;
+        // Prepara o console para digitar
         areaSaida.setEditable(true); // Libera a digitação
         
         // Atualiza a posição inicial para não deixar apagar a pergunta
@@ -90,20 +204,6 @@ public class ConsoleExecucao extends JFrame {
         
         areaSaida.setCaretPosition(posicaoInicialInput);
         areaSaida.requestFocus();
-
-        // 2. Pausa a thread da VM e espera o ENTER
-        synchronized (lockInput) {
-            try {
-                while (aguardandoInput) {
-                    lockInput.wait(); // A VM dorme aqui
-                }
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-            }
-        }
-
-        // 3. Retorna o que foi digitado
-        return inputCapturado;
     }
 
     private void confirmarInput() {
@@ -0,0 +1,536 @@
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class EmissorClasse {
+
+    // Gera arquivos .class (formato da JVM 8) sem bibliotecas externas: pool de constantes,
+    // métodos com atributo Code e StackMapTable. Usado pelo CompiladorJit e pelo CompiladorAot.
+
+    // --- OPCODES DA JVM (apenas os usados pelos compiladores) ---
+    public static final int NOP = 0x00;
+    public static final int ACONST_NULL = 0x01;
+    public static final int ICONST_0 = 0x03;
+    public static final int ICONST_1 = 0x04;
+    public static final int LCONST_0 = 0x09;
+    public static final int LCONST_1 = 0x0a;
+    public static final int DCONST_0 = 0x0e;
+    public static final int DCONST_1 = 0x0f;
+    public static final int BIPUSH = 0x10;
+    public static final int SIPUSH = 0x11;
+    public static final int LDC = 0x12;
+    public static final int LDC_W = 0x13;
+    public static final int LDC2_W = 0x14;
+    public static final int ILOAD = 0x15;
+    public static final int LLOAD = 0x16;
+    public static final int DLOAD = 0x18;
+    public static final int ALOAD = 0x19;
+    public static final int AALOAD = 0x32;
+    public static final int ISTORE = 0x36;
+    public static final int LSTORE = 0x37;
+    public static final int DSTORE = 0x39;
+    public static final int ASTORE = 0x3a;
+    public static final int AASTORE = 0x53;
+    public static final int POP = 0x57;
+    public static final int POP2 = 0x58;
+    public static final int DUP = 0x59;
+    public static final int DUP_X1 = 0x5a;
+    public static final int DUP_X2 = 0x5b;
+    public static final int DUP2 = 0x5c;
+    public static final int DUP2_X1 = 0x5d;
+    public static final int DUP2_X2 = 0x5e;
+    public static final int SWAP = 0x5f;
+    public static final int ISUB = 0x64;
+    public static final int LADD = 0x61;
+    public static final int DADD = 0x63;
+    public static final int LSUB = 0x65;
+    public static final int DSUB = 0x67;
+    public static final int LMUL = 0x69;
+    public static final int DMUL = 0x6b;
+    public static final int LDIV = 0x6d;
+    public static final int DDIV = 0x6f;
+    public static final int LREM = 0x71;
+    public static final int DREM = 0x73;
+    public static final int INEG = 0x74;
+    public static final int IUSHR = 0x7c;
+    public static final int IAND = 0x7e;
+    public static final int IXOR = 0x82;
+    public static final int IINC = 0x84;
+    public static final int I2L = 0x85;
+    public static final int L2I = 0x88;
+    public static final int L2D = 0x8a;
+    public static final int D2L = 0x8f;
+    public static final int LCMP = 0x94;
+    public static final int DCMPG = 0x98;
+    public static final int IFEQ = 0x99;
+    public static final int IFNE = 0x9a;
+    public static final int IFLT = 0x9b;
+    public static final int IFGE = 0x9c;
+    public static final int IFGT = 0x9d;
+    public static final int IFLE = 0x9e;
+    public static final int IF_ICMPEQ = 0x9f;
+    public static final int IF_ICMPGE = 0xa2;
+    public static final int GOTO = 0xa7;
+    public static final int IRETURN = 0xac;
+    public static final int ARETURN = 0xb0;
+    public static final int RETURN = 0xb1;
+    public static final int GETSTATIC = 0xb2;
+    public static final int PUTSTATIC = 0xb3;
+    public static final int INVOKEVIRTUAL = 0xb6;
+    public static final int INVOKESPECIAL = 0xb7;
+    public static final int INVOKESTATIC = 0xb8;
+    public static final int INVOKEINTERFACE = 0xb9;
+    public static final int NEW = 0xbb;
+    public static final int ANEWARRAY = 0xbd;
+    public static final int ATHROW = 0xbf;
+    public static final int CHECKCAST = 0xc0;
+    public static final int INSTANCEOF = 0xc1;
+
+    // Flags de acesso
+    public static final int ACC_PUBLIC = 0x0001;
+    public static final int ACC_PRIVATE = 0x0002;
+    public static final int ACC_STATIC = 0x0008;
+    public static final int ACC_FINAL = 0x0010;
+    public static final int ACC_SUPER = 0x0020;
+
+    // Tipos de verificação usados nos quadros (StackMapTable).
+    // Qualquer outro texto é o nome interno de uma classe (ex.: "java/lang/String").
+    public static final String TIPO_INT = "I";
+    public static final String TIPO_LONG = "J";
+    public static final String TIPO_DOUBLE = "D";
+
+    private static final int VERSAO_CLASSE = 52; // Java 8: exige StackMapTable
+
+    private final ByteArrayOutputStream poolBytes = new ByteArrayOutputStream();
+    private final DataOutputStream pool = new DataOutputStream(poolBytes);
+    private final Map<String, Integer> indicePool = new HashMap<>();
+    private int proximoIndice = 1;
+
+    private final int classeAtual;
+    private final int superclasse;
+    private final int[] interfaces;
+    private final List<byte[]> campos = new ArrayList<>();
+    private final List<byte[]> metodos = new ArrayList<>();
+
+    public EmissorClasse(String nome, String superclasse, String... interfaces) {
+        this.classeAtual = classe(nome);
+        this.superclasse = classe(superclasse);
+        this.interfaces = new int[interfaces.length];
+        for (int i = 0; i < interfaces.length; i++) {
+            this.interfaces[i] = classe(interfaces[i]);
+        }
+    }
+
+    // --- POOL DE CONSTANTES ---
+
+    public int utf8(String texto) {
+        Integer indice = indicePool.get("U" + texto);
+        if (indice != null) return indice;
+        try {
+            pool.writeByte(1);
+            pool.writeUTF(texto);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return registrar("U" + texto, 1);
+    }
+
+    public int classe(String nomeInterno) {
+        Integer indice = indicePool.get("C" + nomeInterno);
+        if (indice != null) return indice;
+        int nome = utf8(nomeInterno);
+        escreverPool(7, nome);
+        return registrar("C" + nomeInterno, 1);
+    }
+
+    public int texto(String valor) {
+        Integer indice = indicePool.get("S" + valor);
+        if (indice != null) return indice;
+        int conteudo = utf8(valor);
+        escreverPool(8, conteudo);
+        return registrar("S" + valor, 1);
+    }
+
+    public int inteiro(int valor) {
+        Integer indice = indicePool.get("I" + valor);
+        if (indice != null) return indice;
+        try {
+            pool.writeByte(3);
+            pool.writeInt(valor);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return registrar("I" + valor, 1);
+    }
+
+    public int longo(long valor) {
+        Integer indice = indicePool.get("J" + valor);
+        if (indice != null) return indice;
+        try {
+            pool.writeByte(5);
+            pool.writeLong(valor);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return registrar("J" + valor, 2); // long e double ocupam duas entradas no pool
+    }
+
+    public int real(double valor) {
+        long bits = Double.doubleToRawLongBits(valor);
+        Integer indice = indicePool.get("D" + bits);
+        if (indice != null) return indice;
+        try {
+            pool.writeByte(6);
+            pool.writeLong(bits);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return registrar("D" + bits, 2);
+    }
+
+    public int campo(String dono, String nome, String descritor) {
+        return referencia(9, dono, nome, descritor);
+    }
+
+    public int metodo(String dono, String nome, String descritor) {
+        return referencia(10, dono, nome, descritor);
+    }
+
+    public int metodoInterface(String dono, String nome, String descritor) {
+        return referencia(11, dono, nome, descritor);
+    }
+
+    private int referencia(int tag, String dono, String nome, String descritor) {
+        String chave = "R" + tag + dono + "." + nome + descritor;
+        Integer indice = indicePool.get(chave);
+        if (indice != null) return indice;
+        int classeDono = classe(dono);
+        int nomeTipo = nomeETipo(nome, descritor);
+        try {
+            pool.writeByte(tag);
+            pool.writeShort(classeDono);
+            pool.writeShort(nomeTipo);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return registrar(chave, 1);
+    }
+
+    private int nomeETipo(String nome, String descritor) {
+        String chave = "N" + nome + ":" + descritor;
+        Integer indice = indicePool.get(chave);
+        if (indice != null) return indice;
+        int n = utf8(nome);
+        int d = utf8(descritor);
+        try {
+            pool.writeByte(12);
+            pool.writeShort(n);
+            pool.writeShort(d);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return registrar(chave, 1);
+    }
+
+    private void escreverPool(int tag, int indice) {
+        try {
+            pool.writeByte(tag);
+            pool.writeShort(indice);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private int registrar(String chave, int entradas) {
+        int indice = proximoIndice;
+        proximoIndice += entradas;
+        if (proximoIndice > 0xFFFF) {
+            throw new IllegalStateException("Pool de constantes excedeu o limite da JVM.");
+        }
+        indicePool.put(chave, indice);
+        return indice;
+    }
+
+    // --- CAMPOS E MÉTODOS ---
+
+    public void adicionarCampo(int acesso, String nome, String descritor) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream saida = new DataOutputStream(bytes);
+        try {
+            saida.writeShort(acesso);
+            saida.writeShort(utf8(nome));
+            saida.writeShort(utf8(descritor));
+            saida.writeShort(0);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        campos.add(bytes.toByteArray());
+    }
+
+    public void adicionarMetodo(int acesso, String nome, String descritor, Codigo codigo, int maxPilha, int maxLocais) {
+        byte[] bytecode = codigo.finalizar();
+        if (bytecode.length > 0xFFFF) {
+            throw new IllegalStateException("Método " + nome + " excede o tamanho máximo da JVM.");
+        }
+        byte[] mapa = codigo.mapaDePilha(this);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream saida = new DataOutputStream(bytes);
+        try {
+            saida.writeShort(acesso);
+            saida.writeShort(utf8(nome));
+            saida.writeShort(utf8(descritor));
+            saida.writeShort(1); // apenas o atributo Code
+
+            int nomeCode = utf8("Code");
+            int nomeMapa = (mapa != null) ? utf8("StackMapTable") : 0;
+            int tamanhoCode = 2 + 2 + 4 + bytecode.length + 2 + 2 + ((mapa != null) ? 6 + mapa.length : 0);
+            saida.writeShort(nomeCode);
+            saida.writeInt(tamanhoCode);
+            saida.writeShort(maxPilha);
+            saida.writeShort(maxLocais);
+            saida.writeInt(bytecode.length);
+            saida.write(bytecode);
+            saida.writeShort(0); // sem tabela de exceções
+            if (mapa != null) {
+                saida.writeShort(1);
+                saida.writeShort(nomeMapa);
+                saida.writeInt(mapa.length);
+                saida.write(mapa);
+            } else {
+                saida.writeShort(0);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        metodos.add(bytes.toByteArray());
+    }
+
+    // Construtor padrão que apenas chama o da superclasse
+    public void adicionarConstrutorPadrao(String superclasse) {
+        Codigo codigo = new Codigo();
+        codigo.op1(ALOAD, 0);
+        codigo.op2(INVOKESPECIAL, metodo(superclasse, "<init>", "()V"));
+        codigo.op(RETURN);
+        adicionarMetodo(ACC_PUBLIC, "<init>", "()V", codigo, 1, 1);
+    }
+
+    public byte[] gerar() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream saida = new DataOutputStream(bytes);
+        try {
+            saida.writeInt(0xCAFEBABE);
+            saida.writeShort(0);
+            saida.writeShort(VERSAO_CLASSE);
+            saida.writeShort(proximoIndice);
+            saida.write(poolBytes.toByteArray());
+            saida.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+            saida.writeShort(classeAtual);
+            saida.writeShort(superclasse);
+            saida.writeShort(interfaces.length);
+            for (int i : interfaces) saida.writeShort(i);
+            saida.writeShort(campos.size());
+            for (byte[] c : campos) saida.write(c);
+            saida.writeShort(metodos.size());
+            for (byte[] m : metodos) saida.write(m);
+            saida.writeShort(0); // sem atributos de classe
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    // --- CORPO DE UM MÉTODO ---
+
+    public static class Codigo {
+
+        private byte[] bytes = new byte[256];
+        private int tamanho = 0;
+
+        // Rótulos: posição no bytecode (-1 enquanto não marcado) e desvios pendentes
+        private int[] posicaoRotulo = new int[16];
+        private int rotulos = 0;
+        private final List<int[]> pendentes = new ArrayList<>(); // {posição do opcode, posição do offset, rótulo}
+
+        // Quadros da StackMapTable por posição: {tipos dos locais, tipos da pilha}
+        private final TreeMap<Integer, String[][]> quadros = new TreeMap<>();
+
+        public int posicao() {
+            return tamanho;
+        }
+
+        public void op(int opcode) {
+            u1(opcode);
+        }
+
+        public void op1(int opcode, int argumento) {
+            u1(opcode);
+            u1(argumento);
+        }
+
+        public void op2(int opcode, int argumento) {
+            u1(opcode);
+            u2(argumento);
+        }
+
+        public void invokeinterface(int metodo, int argumentos) {
+            u1(INVOKEINTERFACE);
+            u2(metodo);
+            u1(argumentos + 1);
+            u1(0);
+        }
+
+        // Acesso a variáveis locais com índice de até 255 (a forma "wide" não é usada)
+        public void local(int opcode, int indice) {
+            if (indice > 0xFF) throw new IllegalStateException("Variáveis locais demais no método gerado.");
+            op1(opcode, indice);
+        }
+
+        public void iinc(int indice, int incremento) {
+            if (indice > 0xFF) throw new IllegalStateException("Variáveis locais demais no método gerado.");
+            u1(IINC);
+            u1(indice);
+            u1(incremento);
+        }
+
+        public void carregarInteiro(EmissorClasse classe, int valor) {
+            if (valor >= -1 && valor <= 5) {
+                op(ICONST_0 + valor);
+            } else if (valor >= Byte.MIN_VALUE && valor <= Byte.MAX_VALUE) {
+                op1(BIPUSH, valor & 0xFF);
+            } else if (valor >= Short.MIN_VALUE && valor <= Short.MAX_VALUE) {
+                op2(SIPUSH, valor & 0xFFFF);
+            } else {
+                carregarConstante(classe.inteiro(valor));
+            }
+        }
+
+        public void carregarLongo(EmissorClasse classe, long valor) {
+            if (valor == 0 || valor == 1) {
+                op(LCONST_0 + (int) valor);
+            } else {
+                op2(LDC2_W, classe.longo(valor));
+            }
+        }
+
+        public void carregarReal(EmissorClasse classe, double valor) {
+            long bits = Double.doubleToRawLongBits(valor);
+            if (bits == Double.doubleToRawLongBits(0.0)) {
+                op(DCONST_0);
+            } else if (bits == Double.doubleToRawLongBits(1.0)) {
+                op(DCONST_1);
+            } else {
+                op2(LDC2_W, classe.real(valor));
+            }
+        }
+
+        public void carregarTexto(EmissorClasse classe, String valor) {
+            carregarConstante(classe.texto(valor));
+        }
+
+        private void carregarConstante(int indice) {
+            if (indice <= 0xFF) {
+                op1(LDC, indice);
+            } else {
+                op2(LDC_W, indice);
+            }
+        }
+
+        // --- RÓTULOS E DESVIOS ---
+
+        public int novoRotulo() {
+            if (rotulos == posicaoRotulo.length) posicaoRotulo = Arrays.copyOf(posicaoRotulo, rotulos * 2);
+            posicaoRotulo[rotulos] = -1;
+            return rotulos++;
+        }
+
+        public void marcar(int rotulo) {
+            posicaoRotulo[rotulo] = tamanho;
+        }
+
+        public boolean isMarcado(int rotulo) {
+            return posicaoRotulo[rotulo] >= 0;
+        }
+
+        // goto e if<cond> com deslocamento de 16 bits, resolvido em finalizar()
+        public void desvio(int opcode, int rotulo) {
+            int inicio = tamanho;
+            u1(opcode);
+            pendentes.add(new int[] {inicio, tamanho, rotulo});
+            u2(0);
+        }
+
+        // Registra o estado esperado pelo verificador na posição atual (alvos de desvio
+        // e instruções logo após um goto/return precisam de quadro)
+        public void quadro(String[] locais, String[] pilha) {
+            quadros.put(tamanho, new String[][] {locais.clone(), pilha.clone()});
+        }
+
+        byte[] finalizar() {
+            for (int[] p : pendentes) {
+                int destino = posicaoRotulo[p[2]];
+                if (destino < 0) throw new IllegalStateException("Rótulo não marcado no código gerado.");
+                int deslocamento = destino - p[0];
+                if (deslocamento < Short.MIN_VALUE || deslocamento > Short.MAX_VALUE) {
+                    throw new IllegalStateException("Desvio longo demais no código gerado.");
+                }
+                bytes[p[1]] = (byte) (deslocamento >> 8);
+                bytes[p[1] + 1] = (byte) deslocamento;
+            }
+            pendentes.clear();
+            return Arrays.copyOf(bytes, tamanho);
+        }
+
+        // StackMapTable só com quadros completos (full_frame): simples e sempre válido
+        byte[] mapaDePilha(EmissorClasse classe) {
+            if (quadros.isEmpty()) return null;
+            ByteArrayOutputStream saidaBytes = new ByteArrayOutputStream();
+            DataOutputStream saida = new DataOutputStream(saidaBytes);
+            try {
+                saida.writeShort(quadros.size());
+                int anterior = -1;
+                for (Map.Entry<Integer, String[][]> q : quadros.entrySet()) {
+                    int posicao = q.getKey();
+                    saida.writeByte(255);
+                    saida.writeShort(posicao - anterior - 1);
+                    anterior = posicao;
+                    escreverTipos(saida, q.getValue()[0], classe);
+                    escreverTipos(saida, q.getValue()[1], classe);
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            return saidaBytes.toByteArray();
+        }
+
+        private static void escreverTipos(DataOutputStream saida, String[] tipos, EmissorClasse classe) throws IOException {
+            saida.writeShort(tipos.length);
+            for (String tipo : tipos) {
+                switch (tipo) {
+                    case TIPO_INT: saida.writeByte(1); break;
+                    case TIPO_DOUBLE: saida.writeByte(3); break;
+                    case TIPO_LONG: saida.writeByte(4); break;
+                    default:
+                        saida.writeByte(7);
+                        saida.writeShort(classe.classe(tipo));
+                }
+            }
+        }
+
+        private void u1(int valor) {
+            if (tamanho == bytes.length) bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            bytes[tamanho++] = (byte) valor;
+        }
+
+        private void u2(int valor) {
+            u1(valor >> 8);
+            u1(valor);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+public class ExecucaoCompilada {
+
+    // Runtime dos programas compilados pelo CompiladorAot (vai junto no .jar gerado).
+    // Cada instrução do código objeto vira uma chamada a um destes métodos; os desvios
+    // viram desvios da própria JVM. show/read passam pelo canal (no .jar, stdin/stdout).
+
+    // Implementado pela classe gerada
+    public interface Programa {
+        void executar(ExecucaoCompilada execucao);
+    }
+
+    private final MemoriaDados memoria;
+    private final PilhaOperandos pilha = new PilhaOperandos();
+    private final CanalES canal;
+
+    public ExecucaoCompilada(int tamanhoMemoria, CanalES canal) {
+        this.memoria = new MemoriaDados(tamanhoMemoria);
+        this.canal = canal;
+    }
+
+    // Chamado pelo main da classe gerada (o tamanho da área de dados vem do código objeto);
+    // termina com status 1 em erro de execução
+    public static void iniciar(Programa programa, int tamanhoMemoria) {
+        ExecucaoCompilada execucao = new ExecucaoCompilada(tamanhoMemoria, CanalFluxo.padrao());
+        boolean sucesso = execucao.rodar(programa);
+        if (!sucesso) System.exit(1);
+    }
+
+    public boolean rodar(Programa programa) {
+        try {
+            programa.executar(this);
+            return true;
+        } catch (RuntimeException e) {
+            canal.descarregar();
+            System.err.println("ERRO DE EXECUÇÃO (Runtime Error): " + e.getMessage());
+            return false;
+        } finally {
+            canal.descarregar();
+        }
+    }
+
+    // --- CARGA DE CONSTANTES ---
+
+    public void ldi(long valor) {
+        pilha.empilharInteiro(valor);
+    }
+
+    public void ldr(double valor) {
+        pilha.empilharReal(valor);
+    }
+
+    public void lds(String valor) {
+        pilha.empilharTexto(valor);
+    }
+
+    // --- MEMÓRIA ---
+
+    public void ldv(int endereco) {
+        memoria.carregar(endereco, pilha);
+    }
+
+    public void str(int endereco) {
+        memoria.guardar(endereco, pilha);
+    }
+
+    public void stk(int endereco) {
+        memoria.guardar(endereco, pilha);
+        memoria.carregar(endereco, pilha);
+    }
+
+    public void stx() {
+        memoria.guardarIndireto(pilha);
+    }
+
+    public void ldx() {
+        memoria.carregarIndireto(pilha);
+    }
+
+    // --- ARITMÉTICA ---
+
+    public void aritmetica(int op) {
+        OperacoesMaquina.aritmetica(pilha, op);
+    }
+
+    public void addi() {
+        long b = pilha.desempilharInteiroTipado();
+        pilha.empilharInteiro(pilha.desempilharInteiroTipado() + b);
+    }
+
+    public void subi() {
+        long b = pilha.desempilharInteiroTipado();
+        pilha.empilharInteiro(pilha.desempilharInteiroTipado() - b);
+    }
+
+    public void muli() {
+        long b = pilha.desempilharInteiroTipado();
+        pilha.empilharInteiro(pilha.desempilharInteiroTipado() * b);
+    }
+
+    public void modi() {
+        long b = pilha.desempilharInteiroTipado();
+        pilha.empilharInteiro(pilha.desempilharInteiroTipado() % b);
+    }
+
+    public void remi() {
+        long b = pilha.desempilharInteiroTipado();
+        pilha.empilharInteiro(pilha.desempilharInteiroTipado() / b);
+    }
+
+    public void powi() {
+        long b = pilha.desempilharInteiroTipado();
+        pilha.empilharInteiro(OperacoesMaquina.potenciaInteira(pilha.desempilharInteiroTipado(), b));
+    }
+
+    public void addr() {
+        double b = pilha.desempilharRealTipado();
+        pilha.empilharReal(pilha.desempilharRealTipado() + b);
+    }
+
+    public void subr() {
+        double b = pilha.desempilharRealTipado();
+        pilha.empilharReal(pilha.desempilharRealTipado() - b);
+    }
+
+    public void mulr() {
+        double b = pilha.desempilharRealTipado();
+        pilha.empilharReal(pilha.desempilharRealTipado() * b);
+    }
+
+    public void divr() {
+        double b = pilha.desempilharRealTipado();
+        pilha.empilharReal(pilha.desempilharRealTipado() / b);
+    }
+
+    public void modr() {
+        double b = pilha.desempilharRealTipado();
+        pilha.empilharReal(pilha.desempilharRealTipado() % b);
+    }
+
+    public void remr() {
+        double b = pilha.desempilharRealTipado();
+        pilha.empilharReal((long) (pilha.desempilharRealTipado() / b));
+    }
+
+    public void powr() {
+        double b = pilha.desempilharRealTipado();
+        pilha.empilharReal(Math.pow(pilha.desempilharRealTipado(), b));
+    }
+
+    public void cvr(int profundidade) {
+        pilha.converterParaReal(profundidade);
+    }
+
+    // --- RELACIONAIS, LÓGICAS E DESVIOS ---
+
+    public void relacional(int op) {
+        OperacoesMaquina.relacional(pilha, op);
+    }
+
+    public void logica(int op) {
+        OperacoesMaquina.logica(pilha, op);
+    }
+
+    // JMF: verdadeiro quando o desvio deve ser tomado (condição falsa)
+    public boolean jmf() {
+        return pilha.desempilharInteiro() == 0;
+    }
+
+    // --- ENTRADA E SAÍDA ---
+
+    public void wrt() {
+        canal.escrever(String.valueOf(pilha.desempilharValor()) + "\n");
+    }
+
+    public void rea(int categoria) {
+        String linha = canal.ler();
+        pilha.empilharValor(OperacoesMaquina.converterEntrada((linha != null) ? linha : "", categoria));
+    }
+
+    public void stp() {
+        canal.descarregar();
+    }
+
+    public void naoImplementada(String mnemonico) {
+        canal.escrever("Instrução não implementada na VM: " + mnemonico + "\n");
+    }
+}
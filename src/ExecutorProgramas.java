@@ -0,0 +1,315 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class ExecutorProgramas implements AutoCloseable {
+
+    // Execução sem tela de muitos programas compilados ao mesmo tempo (ex.: correção
+    // automática). Cada programa é decodificado uma vez só; todas as execuções dele
+    // compartilham o mesmo ProgramaDecodificado, cada uma com a sua MaquinaVirtual (memória
+    // e pilha próprias) e o seu CanalFila. Uma thread virtual por execução quando a JVM tem
+    // (Java 21+, procurada por reflexão); senão, um pool de threads de plataforma.
+    //
+    //   java ExecutorProgramas [-n N] [-j N] [-i N] [-t ms] [-m N] [-e entrada.txt] [-semjit] <arquivo-ou-diretório>...
+    //
+    // -n execuções de cada programa (padrão: 1000); -j usa N threads de plataforma em vez das
+    // virtuais; -i, -t e -m são os limites de cada execução (MaquinaVirtual); -e dá as linhas
+    // de entrada de todas as execuções. Mostra execuções por segundo e as latências p50/p99.
+    // Status de saída: 0 se todas as execuções concluíram, 1 se alguma não, 2 em erro de uso.
+
+    // Uma execução: como terminou, a saída e quanto tempo levou (do início ao fim do run)
+    public static class Resultado {
+        private final StatusExecucao status;
+        private final String saida;
+        private final String erro;
+        private final long latenciaNanos;
+
+        Resultado(StatusExecucao status, String saida, String erro, long latenciaNanos) {
+            this.status = status;
+            this.saida = saida;
+            this.erro = erro;
+            this.latenciaNanos = latenciaNanos;
+        }
+
+        public StatusExecucao getStatus() {
+            return status;
+        }
+
+        public String getSaida() {
+            return saida;
+        }
+
+        public String getErro() {
+            return erro;
+        }
+
+        public long getLatenciaNanos() {
+            return latenciaNanos;
+        }
+    }
+
+    // Vazão e latências de um conjunto de execuções
+    public static class Estatisticas {
+        private final int total;
+        private final long duracaoNanos;
+        private final long p50Nanos;
+        private final long p99Nanos;
+        private final Map<StatusExecucao, Integer> porStatus;
+
+        Estatisticas(int total, long duracaoNanos, long p50Nanos, long p99Nanos, Map<StatusExecucao, Integer> porStatus) {
+            this.total = total;
+            this.duracaoNanos = duracaoNanos;
+            this.p50Nanos = p50Nanos;
+            this.p99Nanos = p99Nanos;
+            this.porStatus = porStatus;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public double getExecucoesPorSegundo() {
+            return (duracaoNanos == 0) ? 0 : total * 1e9 / duracaoNanos;
+        }
+
+        public long getP50Nanos() {
+            return p50Nanos;
+        }
+
+        public long getP99Nanos() {
+            return p99Nanos;
+        }
+
+        public Map<StatusExecucao, Integer> getPorStatus() {
+            return porStatus;
+        }
+    }
+
+    private final ExecutorService executor;
+    private final boolean virtual;
+    private long orcamentoInstrucoes;
+    private long tempoLimiteMs;
+    private int limiteMemoria;
+    private boolean jit = true;
+
+    // threads = 0: threads virtuais (ou, se a JVM não tiver, uma thread por núcleo)
+    public ExecutorProgramas(int threads) {
+        ExecutorService virtuais = (threads == 0) ? criarExecutorVirtual() : null;
+        this.virtual = (virtuais != null);
+        this.executor = virtual ? virtuais
+                : Executors.newFixedThreadPool((threads > 0) ? threads : Runtime.getRuntime().availableProcessors());
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor() sem depender do Java 21 para compilar
+    private static ExecutorService criarExecutorVirtual() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null; // Java 17, ou threads virtuais ainda em preview
+        }
+    }
+
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    public void setOrcamentoInstrucoes(long orcamentoInstrucoes) {
+        this.orcamentoInstrucoes = orcamentoInstrucoes;
+    }
+
+    public void setTempoLimiteMs(long tempoLimiteMs) {
+        this.tempoLimiteMs = tempoLimiteMs;
+    }
+
+    public void setLimiteMemoria(int limiteMemoria) {
+        this.limiteMemoria = limiteMemoria;
+    }
+
+    public void setJit(boolean jit) {
+        this.jit = jit;
+    }
+
+    // Entrada dada de antemão: depois das linhas, o read recebe fim da entrada
+    public Future<Resultado> submeter(ProgramaDecodificado programa, String... entrada) {
+        CanalFila canal = new CanalFila(entrada);
+        canal.fecharEntrada();
+        return submeter(programa, canal);
+    }
+
+    // Entrada alimentada por quem chama (CanalFila.enviar) enquanto o programa roda
+    public Future<Resultado> submeter(ProgramaDecodificado programa, CanalFila canal) {
+        return executor.submit(() -> executar(programa, canal));
+    }
+
+    private Resultado executar(ProgramaDecodificado programa, CanalFila canal) {
+        long inicio = System.nanoTime();
+        MaquinaVirtual vm = new MaquinaVirtual(programa, canal);
+        vm.setJit(jit);
+        vm.setOrcamentoInstrucoes(orcamentoInstrucoes);
+        vm.setTempoLimiteMs(tempoLimiteMs);
+        vm.setLimiteMemoria(limiteMemoria);
+        vm.run();
+        return new Resultado(vm.getStatus(), canal.getSaida(), vm.getErro(), System.nanoTime() - inicio);
+    }
+
+    // Espera as execuções já submetidas e libera as threads
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                // Continua esperando: os limites de cada execução garantem o fim
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public static Estatisticas medir(List<Resultado> resultados, long duracaoNanos) {
+        long[] latencias = new long[resultados.size()];
+        Map<StatusExecucao, Integer> porStatus = new EnumMap<>(StatusExecucao.class);
+        for (int i = 0; i < latencias.length; i++) {
+            Resultado r = resultados.get(i);
+            latencias[i] = r.getLatenciaNanos();
+            porStatus.merge(r.getStatus(), 1, Integer::sum);
+        }
+        Arrays.sort(latencias);
+        return new Estatisticas(latencias.length, duracaoNanos, percentil(latencias, 50), percentil(latencias, 99),
+                porStatus);
+    }
+
+    // Percentil pelo posto mais próximo, sobre latências já ordenadas
+    private static long percentil(long[] ordenadas, int p) {
+        if (ordenadas.length == 0) return 0;
+        int posto = (int) Math.ceil(p / 100.0 * ordenadas.length);
+        return ordenadas[Math.max(posto, 1) - 1];
+    }
+
+    public static void main(String[] args) {
+        int execucoes = 1000;
+        int threads = 0;
+        long orcamento = 0, tempoLimite = 0;
+        int limiteMemoria = 0;
+        boolean jit = true;
+        Path arquivoEntrada = null;
+        List<Path> entradas = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++) {
+            try {
+                if ("-n".equals(args[i]) && i + 1 < args.length) {
+                    execucoes = Math.max(1, Integer.parseInt(args[++i]));
+                } else if ("-j".equals(args[i]) && i + 1 < args.length) {
+                    threads = Math.max(1, Integer.parseInt(args[++i]));
+                } else if ("-i".equals(args[i]) && i + 1 < args.length) {
+                    orcamento = Long.parseLong(args[++i]);
+                } else if ("-t".equals(args[i]) && i + 1 < args.length) {
+                    tempoLimite = Long.parseLong(args[++i]);
+                } else if ("-m".equals(args[i]) && i + 1 < args.length) {
+                    limiteMemoria = Integer.parseInt(args[++i]);
+                } else if ("-e".equals(args[i]) && i + 1 < args.length) {
+                    arquivoEntrada = Paths.get(args[++i]);
+                } else if ("-semjit".equals(args[i])) {
+                    jit = false;
+                } else {
+                    entradas.add(Paths.get(args[i]));
+                }
+            } catch (NumberFormatException e) {
+                usoInvalido("Número inválido: " + args[i]);
+            }
+        }
+        if (entradas.isEmpty()) usoInvalido(null);
+
+        String[] linhasEntrada = new String[0];
+        List<Path> fontes;
+        try {
+            if (arquivoEntrada != null) {
+                linhasEntrada = Files.readAllLines(arquivoEntrada, StandardCharsets.UTF_8).toArray(new String[0]);
+            }
+            fontes = CompiladorLote.listarFontes(entradas);
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("Não foi possível ler os arquivos: " + e.getMessage());
+            System.exit(2);
+            return;
+        }
+
+        // Compila e decodifica cada fonte uma vez: a imagem é compartilhada pelas execuções
+        List<Path> programas = new ArrayList<>();
+        List<ProgramaDecodificado> imagens = new ArrayList<>();
+        for (Path fonte : fontes) {
+            ErrorHandler errorHandler = new ErrorHandler();
+            try {
+                List<Instrucao> instrucoes = CompiladorLote.compilar(FluxoTexto.mapearArquivo(fonte), errorHandler);
+                if (errorHandler.hasErrors()) {
+                    System.out.println("ERRO  " + fonte + " (não compila: " + errorHandler.getErrorMessages().size() + " erro(s))");
+                    continue;
+                }
+                imagens.add(ProgramaDecodificado.decodificar(instrucoes));
+                programas.add(fonte);
+            } catch (IOException | TokenMgrError | IllegalArgumentException e) {
+                System.out.println("ERRO  " + fonte + " (" + e.getMessage() + ")");
+            }
+        }
+        if (imagens.isEmpty()) usoInvalido("Nenhum programa compilado.");
+
+        List<Resultado> resultados = new ArrayList<>();
+        long inicio = System.nanoTime();
+        boolean virtual;
+        try (ExecutorProgramas executor = new ExecutorProgramas(threads)) {
+            virtual = executor.isVirtual();
+            executor.setOrcamentoInstrucoes(orcamento);
+            executor.setTempoLimiteMs(tempoLimite);
+            executor.setLimiteMemoria(limiteMemoria);
+            executor.setJit(jit);
+
+            List<Future<Resultado>> tarefas = new ArrayList<>();
+            for (int n = 0; n < execucoes; n++) {
+                for (ProgramaDecodificado imagem : imagens) {
+                    tarefas.add(executor.submeter(imagem, linhasEntrada));
+                }
+            }
+            for (Future<Resultado> tarefa : tarefas) {
+                try {
+                    resultados.add(tarefa.get());
+                } catch (ExecutionException e) {
+                    resultados.add(new Resultado(StatusExecucao.ERRO, "", String.valueOf(e.getCause()), 0));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Execução interrompida.");
+                }
+            }
+        }
+        Estatisticas estatisticas = medir(resultados, System.nanoTime() - inicio);
+
+        System.out.println();
+        System.out.printf("%d execução(ões) de %d programa(s) em %s: %.0f execuções/s, p50 %.3f ms, p99 %.3f ms%n",
+                estatisticas.getTotal(), imagens.size(),
+                virtual ? "threads virtuais" : (threads > 0 ? threads : Runtime.getRuntime().availableProcessors()) + " thread(s)",
+                estatisticas.getExecucoesPorSegundo(), estatisticas.getP50Nanos() / 1e6, estatisticas.getP99Nanos() / 1e6);
+        for (Map.Entry<StatusExecucao, Integer> status : estatisticas.getPorStatus().entrySet()) {
+            System.out.println("  " + status.getKey().getDescricao() + ": " + status.getValue());
+        }
+
+        Integer concluidas = estatisticas.getPorStatus().get(StatusExecucao.CONCLUIDA);
+        System.exit((concluidas != null && concluidas == estatisticas.getTotal()) ? 0 : 1);
+    }
+
+    private static void usoInvalido(String mensagem) {
+        if (mensagem != null) System.err.println(mensagem);
+        System.err.println("Uso: java ExecutorProgramas [-n N] [-j N] [-i N] [-t ms] [-m N] [-e entrada.txt] [-semjit] <arquivo-ou-diretório>...");
+        System.exit(2);
+    }
+}
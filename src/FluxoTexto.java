@@ -0,0 +1,255 @@
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+public class FluxoTexto extends SimpleCharStream {
+
+    // Fluxo de caracteres para o CompiladorTokenManager lendo direto de um CharSequence
+    // (String, o StringBuilder do LexicoIncremental, um arquivo mapeado em memória), sem
+    // copiar o texto para o buffer do SimpleCharStream nem guardar linha/coluna de cada
+    // caractere. Só os inícios de linha são indexados, conforme a leitura avança; a
+    // coluna é calculada quando o token é criado, a partir do início da linha.
+    //
+    // Linhas e colunas saem iguais às do SimpleCharStream: "\r\n" conta como uma quebra,
+    // tabulação avança até o próximo múltiplo de tabSize, e o EOF fica na posição do último
+    // caractere lido. As imagens dos tokens passam pelo ReservatorioNomes. O
+    // adjustBeginLineColumn (que o CompiladorTokenManager gerado não chama) renumera o token
+    // atual e também o texto seguinte.
+
+    private CharSequence texto;
+    private int inicio;
+    private int fim;
+    private int linhaInicial;
+    private int colunaInicial;
+    private final ReservatorioNomes nomes;
+
+    private int posicao;          // Próximo caractere a entregar
+    private int inicioToken;
+    private int alcance;          // Maior posição examinada desde reiniciarAlcance (exclusiva)
+
+    private int[] iniciosLinha = new int[64]; // Índice do texto onde cada linha começa
+    private int totalLinhas;
+    private int indexado;         // Próximo caractere a examinar atrás de quebra de linha
+
+    // Última coluna calculada: tokens chegam em ordem, então a próxima continua dali
+    private int ultimoIndice;
+    private int ultimaColuna;
+    private int ultimaLinha;
+
+    public FluxoTexto(CharSequence texto) {
+        this(texto, 0, 1, 1, new ReservatorioNomes());
+    }
+
+    // Começa em 'inicio' do texto, que fica na linha/coluna dadas; 'nomes' pode ser
+    // compartilhado entre análises do mesmo texto (LexicoIncremental)
+    public FluxoTexto(CharSequence texto, int inicio, int linha, int coluna, ReservatorioNomes nomes) {
+        super(new StringReader(""), linha, coluna, 1); // O buffer herdado não é usado
+        this.nomes = nomes;
+        reiniciar(texto, inicio, linha, coluna);
+    }
+
+    // Reaproveita o fluxo (e o índice de linhas já alocado) para outro texto
+    public void reiniciar(CharSequence texto, int inicio, int linha, int coluna) {
+        this.texto = texto;
+        this.inicio = inicio;
+        this.fim = texto.length();
+        this.linhaInicial = linha;
+        this.colunaInicial = coluna;
+        this.posicao = inicio;
+        this.inicioToken = inicio;
+        this.alcance = inicio;
+        this.indexado = inicio;
+        iniciosLinha[0] = inicio;
+        totalLinhas = 1;
+        ultimoIndice = -1;
+        ultimaLinha = -1;
+    }
+
+    // Arquivo mapeado em memória e decodificado direto para um CharBuffer (que é um
+    // CharSequence), sem passar por byte[] e String no heap
+    public static CharBuffer mapearArquivo(Path arquivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            MappedByteBuffer bytes = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+            return StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE)
+                    .decode(bytes);
+        }
+    }
+
+    // --- POSIÇÃO (usada pelo LexicoIncremental) ---
+
+    public int getPosicao() {
+        return posicao;
+    }
+
+    public int getAlcance() {
+        return alcance;
+    }
+
+    public void reiniciarAlcance() {
+        alcance = posicao;
+    }
+
+    // --- CHARSTREAM ---
+
+    @Override
+    public char readChar() throws IOException {
+        if (posicao >= fim) {
+            alcance = Math.max(alcance, posicao + 1); // Viu o fim do texto
+            if (inicioToken == -1) inicioToken = posicao - 1;
+            throw new IOException();
+        }
+        char c = texto.charAt(posicao);
+        if (posicao == indexado) {
+            indexarQuebra(posicao, c);
+            indexado++;
+        }
+        posicao++;
+        if (posicao > alcance) alcance = posicao;
+        return c;
+    }
+
+    @Override
+    public char BeginToken() throws IOException {
+        inicioToken = -1;
+        char c = readChar();
+        inicioToken = posicao - 1;
+        return c;
+    }
+
+    @Override
+    public void backup(int quantidade) {
+        posicao -= quantidade;
+    }
+
+    @Override
+    public String GetImage() {
+        return nomes.internar(texto, inicioToken, posicao);
+    }
+
+    @Override
+    public char[] GetSuffix(int tamanho) {
+        char[] sufixo = new char[tamanho];
+        for (int i = 0; i < tamanho; i++) {
+            sufixo[i] = texto.charAt(posicao - tamanho + i);
+        }
+        return sufixo;
+    }
+
+    @Override
+    public int getBeginLine() {
+        return linha(inicioToken);
+    }
+
+    @Override
+    public int getBeginColumn() {
+        return coluna(inicioToken);
+    }
+
+    @Override
+    public int getEndLine() {
+        return linha(posicao - 1);
+    }
+
+    @Override
+    public int getEndColumn() {
+        return coluna(posicao - 1);
+    }
+
+    @Override
+    @Deprecated
+    public int getLine() {
+        return getEndLine();
+    }
+
+    @Override
+    @Deprecated
+    public int getColumn() {
+        return getEndColumn();
+    }
+
+    @Override
+    public void Done() {
+    }
+
+    // O token atual passa a começar em novaLinha/novaColuna, e o que vem depois dele acompanha.
+    // O texto é reindexado a partir do início do token, como se o fluxo começasse ali.
+    @Override
+    public void adjustBeginLineColumn(int novaLinha, int novaColuna) {
+        int examinado = indexado;
+        inicio = inicioToken;
+        linhaInicial = novaLinha;
+        colunaInicial = novaColuna;
+        iniciosLinha[0] = inicio;
+        totalLinhas = 1;
+        for (indexado = inicio; indexado < examinado; indexado++) {
+            indexarQuebra(indexado, texto.charAt(indexado));
+        }
+        ultimoIndice = -1;
+        ultimaLinha = -1;
+    }
+
+    // --- LINHAS E COLUNAS ---
+
+    // Mesma regra do UpdateLineColumn: nova linha depois de '\n', ou depois de '\r' que não
+    // seja seguido de '\n'
+    private void indexarQuebra(int indice, char c) {
+        if (indice == inicio) return;
+        char anterior = texto.charAt(indice - 1);
+        if (anterior == '\n' || (anterior == '\r' && c != '\n')) {
+            if (totalLinhas == iniciosLinha.length) {
+                iniciosLinha = Arrays.copyOf(iniciosLinha, totalLinhas * 2);
+            }
+            iniciosLinha[totalLinhas++] = indice;
+        }
+    }
+
+    // Índice (em iniciosLinha) da linha do caractere
+    private int indiceLinha(int indice) {
+        if (indice >= iniciosLinha[totalLinhas - 1]) return totalLinhas - 1; // Caso comum: a linha atual
+        int ini = 0;
+        int fimBusca = totalLinhas - 1;
+        while (ini < fimBusca) {
+            int meio = (ini + fimBusca + 1) >>> 1;
+            if (iniciosLinha[meio] <= indice) ini = meio;
+            else fimBusca = meio - 1;
+        }
+        return ini;
+    }
+
+    // Antes do início (EOF sem nenhum caractere lido) a posição é 0, como no SimpleCharStream
+    private int linha(int indice) {
+        if (indice < inicio) return 0;
+        return linhaInicial + indiceLinha(indice);
+    }
+
+    private int coluna(int indice) {
+        if (indice < inicio) return 0;
+        int linha = indiceLinha(indice);
+        int i;
+        int coluna;
+        if (linha == ultimaLinha && ultimoIndice <= indice) {
+            i = ultimoIndice + 1;
+            coluna = ultimaColuna;
+        } else {
+            i = iniciosLinha[linha];
+            coluna = (linha == 0) ? colunaInicial - 1 : 0;
+        }
+        for (; i <= indice; i++) {
+            if (texto.charAt(i) == '\t') coluna += tabSize - (coluna % tabSize);
+            else coluna++;
+        }
+        ultimaLinha = linha;
+        ultimoIndice = indice;
+        ultimaColuna = coluna;
+        return coluna;
+    }
+}
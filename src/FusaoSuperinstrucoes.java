@@ -0,0 +1,87 @@
+import java.util.Arrays;
+
+public class FusaoSuperinstrucoes {
+
+    // Cada superinstrução ocupa a posição da primeira instrução da sequência; as demais
+    // ficam no lugar (nunca são executadas) para que os índices de desvio não mudem.
+    // A sequência só é fundida se nenhuma instrução depois da primeira for alvo de desvio.
+    private static final int TAMANHO_SEQUENCIA = 4;
+
+    private FusaoSuperinstrucoes() {
+    }
+
+    public static ProgramaDecodificado fundir(ProgramaDecodificado programa) {
+        int n = programa.tamanho();
+        int[] opcodes = programa.getOpcodes().clone();
+        int[] operandos = programa.getOperandos().clone();
+        int[] complementos = new int[n * TAMANHO_SEQUENCIA];
+        int usados = 0;
+
+        int i = 0;
+        while (i + TAMANHO_SEQUENCIA <= n) {
+            if (programa.isAlvoDeDesvio(i + 1) || programa.isAlvoDeDesvio(i + 2) || programa.isAlvoDeDesvio(i + 3)) {
+                i++;
+                continue;
+            }
+            int op1 = opcodes[i], op2 = opcodes[i + 1], op3 = opcodes[i + 2], op4 = opcodes[i + 3];
+            if (op1 != CodigoOperacao.LDV || (op2 != CodigoOperacao.LDV && op2 != CodigoOperacao.LDI)) {
+                i++;
+                continue;
+            }
+
+            int a = operandos[i];
+            int b = operandos[i + 1];
+            boolean constante = (op2 == CodigoOperacao.LDI);
+            int superOp = -1;
+
+            if (op4 == CodigoOperacao.STR && isAritmeticaFundivel(op3)) {
+                int c = operandos[i + 3];
+                if (constante && a == c && (op3 == CodigoOperacao.ADDI || op3 == CodigoOperacao.SUBI)) {
+                    // LDV i; LDI k; ADDI/SUBI; STR i  ->  INCV i, +-k
+                    superOp = CodigoOperacao.INCV;
+                    complementos[usados] = a;
+                    complementos[usados + 1] = (op3 == CodigoOperacao.ADDI) ? b : -b;
+                } else {
+                    // LDV a; LDV b|LDI k; op; STR c  ->  OPVV / OPVK
+                    superOp = constante ? CodigoOperacao.OPVK : CodigoOperacao.OPVV;
+                    complementos[usados] = a;
+                    complementos[usados + 1] = b;
+                    complementos[usados + 2] = op3;
+                    complementos[usados + 3] = c;
+                }
+            } else if (op4 == CodigoOperacao.JMF && isRelacional(op3)) {
+                // LDV a; LDV b|LDI k; rel; JMF x  ->  CPVV / CPVK
+                superOp = constante ? CodigoOperacao.CPVK : CodigoOperacao.CPVV;
+                complementos[usados] = a;
+                complementos[usados + 1] = b;
+                complementos[usados + 2] = op3;
+                complementos[usados + 3] = operandos[i + 3];
+            }
+
+            if (superOp < 0) {
+                i++;
+                continue;
+            }
+            opcodes[i] = superOp;
+            operandos[i] = usados;
+            usados += TAMANHO_SEQUENCIA;
+            i += TAMANHO_SEQUENCIA;
+        }
+
+        return programa.comSuperinstrucoes(opcodes, operandos, Arrays.copyOf(complementos, usados));
+    }
+
+    private static boolean isAritmeticaFundivel(int op) {
+        switch (op) {
+            case CodigoOperacao.ADDI: case CodigoOperacao.SUBI: case CodigoOperacao.MULI:
+            case CodigoOperacao.ADDR: case CodigoOperacao.SUBR: case CodigoOperacao.MULR:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isRelacional(int op) {
+        return op >= CodigoOperacao.EQL && op <= CodigoOperacao.BGE;
+    }
+}
@@ -1,19 +1,40 @@
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.IntSupplier;
 
 public class GeradorDeCodigo {
 
     private List<Instrucao> codigo;
     private int ponteiro = 1; // Começa em 1 (conforme GLC)
+    private Set<Integer> alvosDeDesvio = new HashSet<>(); // Ponteiros que recebem algum JMP/JMF
+    private final IntSupplier linhaAtual; // Tabela de linhas: cada instrução guarda a linha do fonte
 
     public GeradorDeCodigo() {
+        this(() -> 0);
+    }
+
+    // 'linhaAtual' dá a linha do último token lido pelo parser quando a instrução é gerada
+    public GeradorDeCodigo(IntSupplier linhaAtual) {
         this.codigo = new ArrayList<>();
+        this.linhaAtual = linhaAtual;
+    }
+
+    // Volta ao estado inicial (Compilador.reiniciar): a mesma lista de instruções é reaproveitada
+    public void limpar() {
+        codigo.clear();
+        ponteiro = 1;
+        alvosDeDesvio.clear();
     }
 
     public int gerar(String operacao, String parametro) {
         int ponteiroAtual = this.ponteiro;
-        codigo.add(new Instrucao(ponteiroAtual, operacao, parametro));
+        codigo.add(new Instrucao(ponteiroAtual, operacao, parametro, linhaAtual.getAsInt()));
         this.ponteiro++;
+        if (operacao.equals("JMP") || operacao.equals("JMF")) {
+            registrarAlvo(parametro);
+        }
         return ponteiroAtual; // Retorna o ponteiro (número) da instrução
     }
 
@@ -24,8 +45,102 @@ public class GeradorDeCodigo {
     public void corrigir(int enderecoInstrucao, String novoParametro) {
         if (enderecoInstrucao > 0 && enderecoInstrucao <= codigo.size()) {
             Instrucao inst = codigo.get(enderecoInstrucao - 1);
-            codigo.set(enderecoInstrucao - 1, new Instrucao(inst.getPonteiro(), inst.getOperacao(), novoParametro));
+            codigo.set(enderecoInstrucao - 1, new Instrucao(inst.getPonteiro(), inst.getOperacao(), novoParametro, inst.getLinha()));
+            registrarAlvo(novoParametro);
+        }
+    }
+
+    private void registrarAlvo(String parametro) {
+        try {
+            int alvo = Integer.parseInt(parametro);
+            if (alvo > 0) alvosDeDesvio.add(alvo);
+        } catch (NumberFormatException e) {
+            // Parâmetro não numérico: não é alvo
+        }
+    }
+
+    // Dobramento de constantes: se as duas últimas instruções são cargas de constantes (LDI/LDR)
+    // que não recebem desvios, troca as duas pela constante resultante e devolve true.
+    // Caso contrário não altera nada e o chamador gera a operação normalmente.
+    public boolean dobrarConstantes(String operacao, boolean real) {
+        int n = codigo.size();
+        if (n < 2) return false;
+        Instrucao a = codigo.get(n - 2);
+        Instrucao b = codigo.get(n - 1);
+        if (!isConstanteNumerica(a) || !isConstanteNumerica(b) || alvosDeDesvio.contains(b.getPonteiro())) {
+            return false;
+        }
+
+        String resultado;
+        try {
+            resultado = real
+                    ? dobrarReais(operacao, Double.parseDouble(a.getParametro()), Double.parseDouble(b.getParametro()))
+                    : dobrarInteiros(operacao, Long.parseLong(a.getParametro()), Long.parseLong(b.getParametro()));
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        if (resultado == null) return false;
+
+        codigo.remove(n - 1);
+        codigo.set(n - 2, new Instrucao(a.getPonteiro(), real ? "LDR" : "LDI", resultado, a.getLinha()));
+        this.ponteiro--;
+        return true;
+    }
+
+    private static boolean isConstanteNumerica(Instrucao inst) {
+        return inst.getOperacao().equals("LDI") || inst.getOperacao().equals("LDR");
+    }
+
+    private static String dobrarInteiros(String operacao, long a, long b) {
+        long r;
+        switch (operacao) {
+            case "ADD": r = a + b; break;
+            case "SUB": r = a - b; break;
+            case "MUL": r = a * b; break;
+            case "MOD":
+                if (b == 0) return null; // Divisão por zero fica para a execução
+                r = a % b;
+                break;
+            case "REM":
+                if (b == 0) return null;
+                r = a / b;
+                break;
+            case "POW":
+                if (b < 0 || b > 62) return null;
+                r = OperacoesMaquina.potenciaInteira(a, b);
+                break;
+            default:
+                return null;
+        }
+        // LDI é decodificado como int: resultados maiores ficam para a execução
+        if (r < Integer.MIN_VALUE || r > Integer.MAX_VALUE) return null;
+        return String.valueOf(r);
+    }
+
+    private static String dobrarReais(String operacao, double a, double b) {
+        double r;
+        switch (operacao) {
+            case "ADD": r = a + b; break;
+            case "SUB": r = a - b; break;
+            case "MUL": r = a * b; break;
+            case "DIV":
+                if (b == 0) return null;
+                r = a / b;
+                break;
+            case "MOD":
+                if (b == 0) return null;
+                r = a % b;
+                break;
+            case "REM":
+                if (b == 0) return null;
+                r = (long) (a / b);
+                break;
+            case "POW": r = Math.pow(a, b); break;
+            default:
+                return null;
         }
+        if (Double.isNaN(r) || Double.isInfinite(r)) return null;
+        return String.valueOf(r);
     }
 
     public String getCodigoIntermediario() {
@@ -3,11 +3,17 @@ public class Instrucao {
     private int ponteiro;
     private String operacao;
     private String parametro;
+    private int linha; // Linha do fonte que gerou a instrução (0 = desconhecida)
 
     public Instrucao(int ponteiro, String operacao, String parametro) {
+        this(ponteiro, operacao, parametro, 0);
+    }
+
+    public Instrucao(int ponteiro, String operacao, String parametro, int linha) {
         this.ponteiro = ponteiro;
         this.operacao = operacao;
         this.parametro = parametro;
+        this.linha = linha;
     }
 
     @Override
@@ -26,4 +32,8 @@ public class Instrucao {
     public String getParametro() {
         return this.parametro;
     }
+
+    public int getLinha() {
+        return this.linha;
+    }
 }
\ No newline at end of file
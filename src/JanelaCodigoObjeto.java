@@ -1,11 +1,13 @@
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.table.AbstractTableModel;
 import java.awt.*;
+import java.util.Collections;
+import java.util.List;
 
 public class JanelaCodigoObjeto extends JFrame {
 
     private JTable tabelaCodigo;
-    private DefaultTableModel modeloTabela;
+    private ModeloCodigoObjeto modeloTabela;
 
     public JanelaCodigoObjeto() {
         // Configurações da Janela
@@ -14,14 +16,7 @@ public class JanelaCodigoObjeto extends JFrame {
         setLocationRelativeTo(null);
         setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
 
-        String[] colunas = {"Endereço", "Instrução", "Parâmetro"};
-
-        modeloTabela = new DefaultTableModel(colunas, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        modeloTabela = new ModeloCodigoObjeto();
 
         tabelaCodigo = new JTable(modeloTabela);
 
@@ -36,12 +31,53 @@ public class JanelaCodigoObjeto extends JFrame {
         add(scrollPane, BorderLayout.CENTER);
     }
 
-    public void adicionarLinha(String endereco, String instrucao, String parametro) {
-        modeloTabela.addRow(new Object[]{endereco, instrucao, parametro});
+    // Troca o programa exibido: um único evento para a tabela inteira
+    public void setInstrucoes(List<Instrucao> instrucoes) {
+        modeloTabela.setInstrucoes(instrucoes);
     }
 
     public void limparTabela() {
-        modeloTabela.setRowCount(0);
+        modeloTabela.setInstrucoes(Collections.emptyList());
+    }
+
+    // Modelo sobre a própria lista de instruções: as células são lidas sob demanda,
+    // só para as linhas que a tabela desenha
+    private static class ModeloCodigoObjeto extends AbstractTableModel {
+
+        private static final long serialVersionUID = 1L;
+        private static final String[] COLUNAS = {"Endereço", "Instrução", "Parâmetro"};
+
+        private List<Instrucao> instrucoes = Collections.emptyList();
+
+        void setInstrucoes(List<Instrucao> instrucoes) {
+            this.instrucoes = instrucoes;
+            fireTableDataChanged();
+        }
+
+        @Override
+        public int getRowCount() {
+            return instrucoes.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUNAS.length;
+        }
+
+        @Override
+        public String getColumnName(int coluna) {
+            return COLUNAS[coluna];
+        }
+
+        @Override
+        public Object getValueAt(int linha, int coluna) {
+            Instrucao inst = instrucoes.get(linha);
+            switch (coluna) {
+                case 0: return inst.getPonteiro();
+                case 1: return inst.getOperacao().toUpperCase();
+                default: return inst.getParametro().trim();
+            }
+        }
     }
 
     public static void main(String[] args) {
@@ -55,11 +91,12 @@ public class JanelaCodigoObjeto extends JFrame {
             JanelaCodigoObjeto janela = new JanelaCodigoObjeto();
             janela.setVisible(true);
 
-            janela.adicionarLinha("0", "LDI", "10");
-            janela.adicionarLinha("1", "LDI", "5");
-            janela.adicionarLinha("2", "ADD", "0");
-            janela.adicionarLinha("3", "STR", "100");
-            janela.adicionarLinha("4", "STP", "0");
+            janela.setInstrucoes(java.util.Arrays.asList(
+                    new Instrucao(0, "LDI", "10"),
+                    new Instrucao(1, "LDI", "5"),
+                    new Instrucao(2, "ADD", "0"),
+                    new Instrucao(3, "STR", "100"),
+                    new Instrucao(4, "STP", "0")));
         });
     }
-}
\ No newline at end of file
+}
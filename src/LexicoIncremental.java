@@ -0,0 +1,329 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class LexicoIncremental {
+
+    // Análise léxica que acompanha as edições do documento: em vez de refazer o arquivo
+    // inteiro, reanalisa só a região editada e reaproveita os tokens antigos do resto.
+    //
+    // Para cada token guardamos onde começou a chamada de getNextToken que o produziu
+    // (fim do token anterior) e até onde o analisador leu (alcance; o JavaCC lê adiante,
+    // ex.: "/*" sem fim lê até o EOF e volta para "/"). Um token cujo alcance não chega
+    // na edição continua válido; a reanálise começa no primeiro que chega. Ela termina
+    // quando uma chamada nova começa, depois do fim da edição e de uma quebra de linha,
+    // na mesma posição (deslocada) de uma chamada antiga: dali em diante o texto lido é
+    // o mesmo, então os tokens antigos só mudam de posição e de linha.
+    //
+    // A gramática tem um único estado léxico, então qualquer início de chamada é um ponto
+    // seguro de reinício (comentários de bloco e literais são tokens inteiros).
+    // Uso só na thread do Swing; o parser recebe uma cópia (copiarTokens).
+
+    private final StringBuilder texto = new StringBuilder();
+
+    // Tokens num buffer com lacuna (gap buffer), como o Document do Swing guarda o texto:
+    // [0, lacuna) antes da lacuna, [fimLacuna, capacidade) depois dela. A lacuna fica no ponto
+    // da última edição; os tokens depois dela guardam posições e linhas relativas aos
+    // acumuladores (deslocamentoPosicao/deslocamentoLinha), que cada edição só soma. Assim
+    // uma edição custa os tokens reanalisados mais o quanto a lacuna anda, não o arquivo.
+    private Token[] tokens = new Token[64];
+    private int[] inicioChamada = new int[64];
+    private int[] alcance = new int[64];
+    private int[] alcanceAcumulado = new int[64]; // Máximo de alcance até o token: busca binária
+    private int lacuna = 0;
+    private int fimLacuna = 64;
+    private int deslocamentoPosicao = 0;
+    private int deslocamentoLinha = 0;
+
+    // Compartilhado pelas reanálises: o mesmo nome tem a mesma String antes e depois de uma
+    // edição. Esvaziado quando acumula muito mais nomes que os tokens vivos (o que já foi
+    // digitado e apagado); só custa perder o compartilhamento com os tokens antigos.
+    private final ReservatorioNomes nomes = new ReservatorioNomes();
+
+    private TokenMgrError erroFatal; // Texto atual não pôde ser analisado
+
+    // Estatística da última edição (para diagnóstico e comparação com a análise completa)
+    private int tokensReanalisados;
+
+    public LexicoIncremental(CharSequence textoInicial) {
+        texto.append(textoInicial);
+        reanalisar(0, 0, 0);
+    }
+
+    public void inserir(int posicao, String inserido) {
+        editar(posicao, 0, inserido);
+    }
+
+    public void remover(int posicao, int tamanho) {
+        editar(posicao, tamanho, "");
+    }
+
+    // Substitui [posicao, posicao + removidos) por 'inserido' e reanalisa o necessário
+    public void editar(int posicao, int removidos, String inserido) {
+        if (posicao < 0 || removidos < 0 || posicao + removidos > texto.length()) {
+            throw new IllegalArgumentException("Edição fora do texto: " + posicao + "+" + removidos);
+        }
+        texto.replace(posicao, posicao + removidos, inserido);
+        if (erroFatal != null) {
+            reanalisar(0, 0, 0); // Sem tokens válidos para reaproveitar
+            return;
+        }
+        reanalisar(primeiroAfetado(posicao), posicao + removidos, inserido.length() - removidos);
+    }
+
+    public String getTexto() {
+        return texto.toString();
+    }
+
+    public int getTotalTokens() {
+        return total();
+    }
+
+    public int getTokensReanalisados() {
+        return tokensReanalisados;
+    }
+
+    // Os tokens com posições absolutas (leva a lacuna para o fim)
+    public List<Token> getTokens() {
+        if (erroFatal != null) throw erroFatal;
+        moverLacuna(total());
+        return Collections.unmodifiableList(Arrays.asList(tokens).subList(0, lacuna));
+    }
+
+    // Cópia dos tokens (sem os comentários) para o parser, que encadeia os tokens que
+    // consome: a lista daqui continua sendo atualizada pelas próximas edições
+    public List<Token> copiarTokens() {
+        if (erroFatal != null) throw erroFatal;
+        int n = total();
+        List<Token> copia = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            Token t = tokens[fisico(i)];
+            int linhas = (i < lacuna) ? 0 : deslocamentoLinha;
+            Token c = Token.newToken(t.kind, t.image);
+            c.beginLine = t.beginLine + linhas;
+            c.beginColumn = t.beginColumn;
+            c.endLine = t.endLine + linhas;
+            c.endColumn = t.endColumn;
+            copia.add(c);
+        }
+        return copia;
+    }
+
+    // --- ACESSO AO BUFFER (índices lógicos, valores absolutos) ---
+
+    private int total() {
+        return lacuna + (tokens.length - fimLacuna);
+    }
+
+    private int fisico(int indice) {
+        return (indice < lacuna) ? indice : indice + (fimLacuna - lacuna);
+    }
+
+    private int inicioChamada(int indice) {
+        return (indice < lacuna) ? inicioChamada[indice] : inicioChamada[fisico(indice)] + deslocamentoPosicao;
+    }
+
+    // Depois da lacuna o máximo guardado é só daquele lado: combina com o de antes dela
+    private int alcanceAcumulado(int indice) {
+        if (indice < lacuna) return alcanceAcumulado[indice];
+        int depois = alcanceAcumulado[fisico(indice)] + deslocamentoPosicao;
+        return (lacuna > 0) ? Math.max(alcanceAcumulado[lacuna - 1], depois) : depois;
+    }
+
+    private int linhaFinal(int indice) {
+        return (indice < lacuna) ? tokens[indice].endLine : tokens[fisico(indice)].endLine + deslocamentoLinha;
+    }
+
+    // Leva a lacuna para antes do token 'indice', convertendo os valores que atravessam
+    private void moverLacuna(int indice) {
+        if (lacuna > indice) {
+            int movidos = lacuna - indice;
+            while (lacuna > indice) {
+                // Token passa para depois da lacuna: valores relativos
+                lacuna--;
+                fimLacuna--;
+                tokens[fimLacuna] = tokens[lacuna];
+                if (lacuna != fimLacuna) tokens[lacuna] = null; // Lacuna vazia: mesma posição
+                inicioChamada[fimLacuna] = inicioChamada[lacuna] - deslocamentoPosicao;
+                alcance[fimLacuna] = alcance[lacuna] - deslocamentoPosicao;
+                deslocarLinhas(tokens[fimLacuna], -deslocamentoLinha);
+            }
+            // Máximos do lado de depois: os movidos sempre, os seguintes só enquanto aumentam.
+            // Um máximo guardado maior que o real (de tokens que já saíram) só faz a busca
+            // começar um pouco antes; menor nunca fica.
+            int maximo = Integer.MIN_VALUE;
+            for (int j = fimLacuna; j < tokens.length; j++) {
+                maximo = Math.max(maximo, alcance[j]);
+                if (j >= fimLacuna + movidos && maximo <= alcanceAcumulado[j]) break;
+                alcanceAcumulado[j] = maximo;
+            }
+        } else if (lacuna < indice) {
+            int maximo = (lacuna > 0) ? alcanceAcumulado[lacuna - 1] : Integer.MIN_VALUE;
+            while (lacuna < indice) {
+                // Token passa para antes da lacuna: valores absolutos
+                tokens[lacuna] = tokens[fimLacuna];
+                if (lacuna != fimLacuna) tokens[fimLacuna] = null;
+                inicioChamada[lacuna] = inicioChamada[fimLacuna] + deslocamentoPosicao;
+                alcance[lacuna] = alcance[fimLacuna] + deslocamentoPosicao;
+                deslocarLinhas(tokens[lacuna], deslocamentoLinha);
+                maximo = Math.max(maximo, alcance[lacuna]);
+                alcanceAcumulado[lacuna] = maximo;
+                lacuna++;
+                fimLacuna++;
+            }
+        }
+    }
+
+    // Garante espaço na lacuna para 'quantidade' tokens novos
+    private void reservar(int quantidade) {
+        if (fimLacuna - lacuna >= quantidade) return;
+        int depois = tokens.length - fimLacuna;
+        int capacidade = Math.max(tokens.length * 2, lacuna + quantidade + depois + 64);
+        int novoFim = capacidade - depois;
+        tokens = realocar(tokens, new Token[capacidade], novoFim);
+        inicioChamada = realocar(inicioChamada, new int[capacidade], novoFim);
+        alcance = realocar(alcance, new int[capacidade], novoFim);
+        alcanceAcumulado = realocar(alcanceAcumulado, new int[capacidade], novoFim);
+        fimLacuna = novoFim;
+    }
+
+    private <T> T realocar(Object antigo, T novo, int novoFim) {
+        System.arraycopy(antigo, 0, novo, 0, lacuna);
+        System.arraycopy(antigo, fimLacuna, novo, novoFim, java.lang.reflect.Array.getLength(antigo) - fimLacuna);
+        return novo;
+    }
+
+    // Primeiro token cuja leitura alcançou a posição editada (ou o EOF, se a edição for no fim).
+    // Usa o alcance acumulado: um token pode ter lido mais adiante que os seguintes.
+    private int primeiroAfetado(int posicao) {
+        int k = 0;
+        int fim = total() - 1; // O EOF sempre alcança o fim do texto
+        while (k < fim) {
+            int meio = (k + fim) >>> 1;
+            if (alcanceAcumulado(meio) > posicao) fim = meio;
+            else k = meio + 1;
+        }
+        return k;
+    }
+
+    // Reanalisa a partir do token k (posições anteriores à edição não mudam). fimEdicaoAntigo é
+    // o fim da região substituída no texto antigo e delta a diferença de tamanho do texto.
+    private void reanalisar(int k, int fimEdicaoAntigo, int delta) {
+        moverLacuna(k);
+        int antigos = total();
+        int inicio = (k < antigos) ? inicioChamada(k) : 0;
+        int linha = 1;
+        int coluna = 1;
+        if (k > 0) {
+            Token anterior = tokens[k - 1];
+            linha = anterior.endLine;
+            coluna = anterior.endColumn + 1;
+        }
+        int fimEdicaoNovo = fimEdicaoAntigo + delta;
+
+        if (nomes.tamanho() > total() + 4096) nomes.limpar();
+        FluxoTexto fluxo = new FluxoTexto(texto, inicio, linha, coluna, nomes);
+        CompiladorTokenManager lexico = new CompiladorTokenManager(fluxo);
+
+        List<Token> novos = new ArrayList<>();
+        List<int[]> posicoesNovas = new ArrayList<>();
+        int sincronizado = -1; // Índice do token antigo onde o fluxo novo reencontra o antigo
+        int quebraAposEdicao = proximaQuebra(fimEdicaoNovo);
+        try {
+            while (true) {
+                int chamada = fluxo.getPosicao();
+                if (chamada > quebraAposEdicao && antigos > 0) {
+                    sincronizado = buscarChamada(chamada - delta, k);
+                    if (sincronizado >= 0) break;
+                }
+                fluxo.reiniciarAlcance();
+                Token t = lexico.getNextToken();
+                if (t.kind == CompiladorConstants.EOF && t.beginLine == 0 && k > 0) {
+                    // Reinício exatamente no fim do texto: nada foi lido, e a análise completa
+                    // dá ao EOF a posição do último caractere (o fim do token anterior)
+                    Token anterior = tokens[k - 1];
+                    t.beginLine = t.endLine = anterior.endLine;
+                    t.beginColumn = t.endColumn = anterior.endColumn;
+                }
+                novos.add(t);
+                posicoesNovas.add(new int[]{chamada, fluxo.getAlcance()});
+                if (t.kind == CompiladorConstants.EOF) break;
+            }
+        } catch (TokenMgrError e) {
+            erroFatal = e;
+            limpar();
+            return;
+        }
+        erroFatal = null;
+        tokensReanalisados = novos.size();
+
+        int linhaDelta = 0;
+        if (sincronizado >= 0) {
+            // A chamada sincronizada começa logo depois do último caractere do token anterior,
+            // que é o mesmo caractere nos dois textos (fica depois da edição): a diferença de
+            // linha dele vale para todos os tokens seguintes. A sincronização só acontece
+            // depois de pelo menos um token novo e de um token antigo (sincronizado > k).
+            linhaDelta = novos.get(novos.size() - 1).endLine - linhaFinal(sincronizado - 1);
+        }
+
+        // Os antigos [k, sincronizado) estão logo depois da lacuna: saem da lista
+        fimLacuna += ((sincronizado >= 0) ? sincronizado : antigos) - k;
+        reservar(novos.size());
+        int maximo = (lacuna > 0) ? alcanceAcumulado[lacuna - 1] : Integer.MIN_VALUE;
+        for (int i = 0; i < novos.size(); i++) {
+            tokens[lacuna] = novos.get(i);
+            inicioChamada[lacuna] = posicoesNovas.get(i)[0];
+            alcance[lacuna] = posicoesNovas.get(i)[1];
+            maximo = Math.max(maximo, alcance[lacuna]);
+            alcanceAcumulado[lacuna] = maximo;
+            lacuna++;
+        }
+        // Os que ficaram depois da lacuna andam junto com o texto
+        deslocamentoPosicao += delta;
+        deslocamentoLinha += linhaDelta;
+        if (fimLacuna == tokens.length) {
+            deslocamentoPosicao = 0;
+            deslocamentoLinha = 0;
+        }
+    }
+
+    private void limpar() {
+        Arrays.fill(tokens, null);
+        lacuna = 0;
+        fimLacuna = tokens.length;
+        deslocamentoPosicao = 0;
+        deslocamentoLinha = 0;
+    }
+
+    // Primeira quebra de linha a partir da posição (no texto novo); o comprimento se não houver
+    private int proximaQuebra(int posicao) {
+        for (int i = posicao; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c == '\n' || c == '\r') return i;
+        }
+        return texto.length();
+    }
+
+    // Token antigo (a partir de k) cuja chamada começou em 'posicao' do texto antigo; -1 se nenhum
+    private int buscarChamada(int posicao, int k) {
+        int ini = k;
+        int fim = total() - 1;
+        while (ini <= fim) {
+            int meio = (ini + fim) >>> 1;
+            int p = inicioChamada(meio);
+            if (p == posicao) return meio;
+            if (p < posicao) ini = meio + 1;
+            else fim = meio - 1;
+        }
+        return -1;
+    }
+
+    private static void deslocarLinhas(Token t, int linhaDelta) {
+        if (linhaDelta == 0) return;
+        for (Token s = t; s != null; s = s.specialToken) {
+            s.beginLine += linhaDelta;
+            s.endLine += linhaDelta;
+        }
+    }
+}
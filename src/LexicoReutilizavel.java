@@ -0,0 +1,86 @@
+import java.util.Arrays;
+
+public class LexicoReutilizavel extends CompiladorTokenManager {
+
+    // Analisador léxico para compilações repetidas (Compilador.reiniciar): o FluxoTexto, o
+    // ReservatorioNomes e os próprios objetos Token passam de uma compilação para a outra.
+    // Como no Compilador.analisarLexico, o fonte é analisado inteiro antes do parser, que
+    // depois recebe os tokens gravados (como no TokensGravados). Os tokens de uma
+    // compilação só valem até o próximo reiniciar.
+
+    // Nomes de muitos programas diferentes: esvaziado de vez em quando
+    private static final int LIMITE_NOMES = 1 << 16;
+
+    private final ReservatorioNomes nomes = new ReservatorioNomes();
+    private final FluxoTexto fluxo = new FluxoTexto("", 0, 1, 1, nomes);
+
+    private Token[] reserva = new Token[256]; // Todos os Token já criados (inclusive comentários)
+    private int usados;
+
+    private Token[] gravados = new Token[256]; // Tokens para o parser, terminando no EOF
+    private int totalGravados;
+    private int proximo;
+
+    public LexicoReutilizavel() {
+        super(new FluxoTexto(""));
+    }
+
+    // Analisa o fonte inteiro, registrando os erros léxicos no handler
+    public void reiniciar(CharSequence fonte, ErrorHandler handler) throws TokenMgrError {
+        if (nomes.tamanho() > LIMITE_NOMES) nomes.limpar();
+        fluxo.reiniciar(fonte, 0, 1, 1);
+        ReInit(fluxo);
+        usados = 0;
+        totalGravados = 0;
+        proximo = 0;
+
+        Token t;
+        do {
+            t = super.getNextToken();
+            if (Compilador.isErroLexico(t.kind)) {
+                handler.processLexicalError(t, "");
+            }
+            if (totalGravados == gravados.length) {
+                gravados = Arrays.copyOf(gravados, totalGravados * 2);
+            }
+            gravados[totalGravados++] = t;
+        } while (t.kind != CompiladorConstants.EOF);
+    }
+
+    // Para o parser: os tokens gravados, e o EOF de novo depois do fim
+    @Override
+    public Token getNextToken() {
+        Token t = gravados[proximo];
+        if (proximo < totalGravados - 1) proximo++;
+        return t;
+    }
+
+    // Mesmo preenchimento do jjFillToken gerado, sobre um Token da reserva
+    @Override
+    protected Token jjFillToken() {
+        String im = jjstrLiteralImages[jjmatchedKind];
+        Token t = proximoDaReserva();
+        t.kind = jjmatchedKind;
+        t.image = (im == null) ? input_stream.GetImage() : im;
+        t.beginLine = input_stream.getBeginLine();
+        t.beginColumn = input_stream.getBeginColumn();
+        t.endLine = input_stream.getEndLine();
+        t.endColumn = input_stream.getEndColumn();
+        t.next = null;
+        t.specialToken = null;
+        return t;
+    }
+
+    private Token proximoDaReserva() {
+        if (usados == reserva.length) {
+            reserva = Arrays.copyOf(reserva, usados * 2);
+        }
+        Token t = reserva[usados];
+        if (t == null) {
+            t = new Token();
+            reserva[usados] = t;
+        }
+        usados++;
+        return t;
+    }
+}
@@ -1,217 +1,546 @@
-import javax.swing.*;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Stack;
 
 public class MaquinaVirtual implements Runnable {
 
-    private List<Instrucao> instrucoes;
-    private ConsoleExecucao console;
+    private ProgramaDecodificado programa;
+    private ProgramaDecodificado programaFundido; // Calculado só quando o modo com superinstruções é usado
+    private boolean superinstrucoes = false;
+    private boolean jit = true;
+    private boolean nos = false;
+    private boolean perfilar = false;
+    private PerfilExecucao perfil; // Perfil da última execução (null fora do modo perfil)
+
+    // Laços quentes: voltas contadas por JMP de retorno (o código compilado de cada um fica no
+    // ProgramaDecodificado, compartilhado com as outras VMs do mesmo programa)
+    private int[] voltas;
+    private CanalES console; // Console Swing, stdin/stdout, arquivos ou memória
+    private String erro; // Mensagem do último erro de execução (null se terminou bem)
+    private volatile StatusExecucao status = StatusExecucao.NAO_EXECUTADA;
+
+    // Limites da execução (0 = sem limite), conferidos só nos desvios para trás (fim de cada
+    // volta de laço): sem laço o programa termina sozinho, no máximo em 'total' instruções.
+    // O orçamento é cobrado pela extensão do laço (do alvo até o JMP) a cada volta.
+    private static final int VOLTAS_POR_RELOGIO = 1024; // Voltas entre duas leituras do relógio
+    private long orcamentoInstrucoes;
+    private long tempoLimiteMs;
+    private int limiteMemoria; // Posições: área de dados na carga, pilha de operandos nas voltas
+    private long orcamentoRestante;
+    private long prazo;        // System.nanoTime() do fim do tempo limite
+    private int voltasAteRelogio;
+    private volatile boolean paradaPedida;
+    private volatile boolean verificar; // Algum limite ativo ou parada pedida
     
     // Memória (dados) e Pilha de operandos
-    private Object[] memoria = new Object[1000]; // Simula a RAM (ajustar tamanho se necessário)
-    private Stack<Object> pilha = new Stack<>();
+    private MemoriaDados memoria; // Do tamanho exato da área de dados do programa
+    private PilhaOperandos pilha = new PilhaOperandos();
+
+    public MaquinaVirtual(List<Instrucao> instrucoes, CanalES console) {
+        // Decodifica uma única vez, na carga: a execução não lê mais mnemônicos nem parâmetros em String.
+        // Desvios inválidos são rejeitados aqui (IllegalArgumentException), antes de executar.
+        this(ProgramaDecodificado.decodificar(instrucoes), console);
+    }
+
+    // Programa já decodificado, que a VM só lê: várias VMs (em threads diferentes) podem
+    // compartilhar o mesmo, cada uma com a sua memória e a sua pilha (ExecutorProgramas)
+    public MaquinaVirtual(ProgramaDecodificado programa, CanalES console) {
+        this.programa = programa;
+        this.console = console; // A área de dados só é alocada em run(), depois do limite de memória
+    }
+
+    // Liga/desliga o modo de execução com superinstruções (mesmo programa, para comparar os dois modos)
+    public void setSuperinstrucoes(boolean superinstrucoes) {
+        this.superinstrucoes = superinstrucoes;
+    }
+
+    // Liga/desliga a compilação de laços quentes para bytecode da JVM
+    public void setJit(boolean jit) {
+        this.jit = jit;
+    }
+
+    // Liga/desliga o motor de nós pré-ligados (MotorNos) no lugar do switch
+    public void setNos(boolean nos) {
+        this.nos = nos;
+    }
+
+    // Liga/desliga o perfil de execução (contagens por instrução e opcode, tempo por linha)
+    public void setPerfil(boolean perfilar) {
+        this.perfilar = perfilar;
+    }
+
+    public PerfilExecucao getPerfil() {
+        return perfil;
+    }
+
+    // Máximo de instruções executadas (estimado pelas voltas dos laços); 0 = sem limite.
+    // Com orçamento o JIT fica desligado: os laços compilados não contam voltas.
+    public void setOrcamentoInstrucoes(long orcamentoInstrucoes) {
+        this.orcamentoInstrucoes = orcamentoInstrucoes;
+    }
+
+    public void setTempoLimiteMs(long tempoLimiteMs) {
+        this.tempoLimiteMs = tempoLimiteMs;
+    }
+
+    public void setLimiteMemoria(int limiteMemoria) {
+        this.limiteMemoria = limiteMemoria;
+    }
+
+    // Pedido de parada vindo de outra thread (botão Parar): a execução termina no próximo
+    // fim de volta de laço, com status INTERROMPIDA
+    public void parar() {
+        paradaPedida = true;
+        verificar = true;
+    }
+
+    public StatusExecucao getStatus() {
+        return status;
+    }
 
-    public MaquinaVirtual(List<Instrucao> instrucoes, ConsoleExecucao console) {
-        this.instrucoes = instrucoes;
-        this.console = console;
+    public String getErro() {
+        return erro;
     }
 
     @Override
     public void run() {
+        erro = null;
+        status = StatusExecucao.EM_EXECUCAO;
         console.limpar();
         console.escrever("--- Iniciando Execução ---\n");
+
+        if (limiteMemoria > 0 && programa.getTamanhoMemoria() > limiteMemoria) {
+            interromper(StatusExecucao.MEMORIA_EXCEDIDA);
+            console.descarregar();
+            return;
+        }
+        if (memoria == null) memoria = new MemoriaDados(programa.getTamanhoMemoria());
         
         // Limpa memória e pilha
-        pilha.clear();
-        for(int i=0; i<memoria.length; i++) memoria[i] = null;
+        pilha.limpar();
+        memoria.limpar();
+
+        orcamentoRestante = orcamentoInstrucoes;
+        prazo = System.nanoTime() + tempoLimiteMs * 1_000_000L;
+        voltasAteRelogio = VOLTAS_POR_RELOGIO;
+        if (orcamentoInstrucoes > 0 || tempoLimiteMs > 0 || limiteMemoria > 0) verificar = true;
+        boolean usarJit = jit && orcamentoInstrucoes == 0;
+
+        ProgramaDecodificado prog = programa;
+        if (superinstrucoes) {
+            if (programaFundido == null) programaFundido = FusaoSuperinstrucoes.fundir(programa);
+            prog = programaFundido;
+        }
+
+        final int[] opcodes = prog.getOpcodes();
+        final int[] operandos = prog.getOperandos();
+        final int[] complementos = prog.getComplementos();
+        final double[] reais = prog.getReais();
+        final String[] textos = prog.getTextos();
+        final int total = opcodes.length;
+        voltas = new int[total];
 
         int ip = 0; // Instruction Pointer (aponta para a instrução atual)
+        perfil = perfilar ? new PerfilExecucao(prog) : null;
 
         try {
-            while (ip < instrucoes.size()) {
-                Instrucao inst = instrucoes.get(ip);
-                String op = inst.getOperacao();
-                String par = inst.getParametro(); // Parâmetro como String
+            if (perfil != null) {
+                // Perfil sobre o motor de nós instrumentado, sem JIT (laços compilados não contam
+                // instruções): o laço do switch abaixo fica exatamente como sem perfil
+                MotorNos.No[] instrumentados = MotorNos.instrumentar(
+                        MotorNos.compilar(prog, this, pilha, memoria, console, false), prog, perfil);
+                perfil.iniciar();
+                MotorNos.executar(instrumentados);
+                return;
+            }
+            if (nos) {
+                MotorNos.executar(MotorNos.compilar(prog, this, pilha, memoria, console, usarJit));
+                return;
+            }
+            while (ip < total) {
+                int op = opcodes[ip];
+                int par = operandos[ip]; // Parâmetro já resolvido na decodificação
 
                 // Avança IP por padrão (pode ser alterado por JMP/JMF)
                 ip++; 
 
                 switch (op) {
-                    case "STP":
+                    case CodigoOperacao.STP:
                         console.escrever("\n--- Execução Finalizada ---");
                         return; // Encerra a thread
 
                     // --- CARGA DE CONSTANTES (Load) ---
-                    case "LDI": // Inteiro
-                        pilha.push(Integer.parseInt(par));
+                    case CodigoOperacao.LDI: // Inteiro
+                        pilha.empilharInteiro(par);
                         break;
-                    case "LDR": // Real
-                        pilha.push(Double.parseDouble(par));
+                    case CodigoOperacao.LDR: // Real
+                        pilha.empilharReal(reais[par]);
                         break;
-                    case "LDS": // String
-                        // Remove as aspas da string
-                        String texto = par;
-                        if (texto.startsWith("\"") && texto.endsWith("\"") || texto.startsWith("'") && texto.endsWith("'")) {
-                            texto = texto.substring(1, texto.length() - 1);
-                        }
-                        pilha.push(texto);
+                    case CodigoOperacao.LDS: // String (aspas já removidas na decodificação)
+                        pilha.empilharTexto(textos[par]);
                         break;
-                    case "LDB": // Booleano (0 ou 1)
-                        pilha.push(Integer.parseInt(par)); 
+                    case CodigoOperacao.LDB: // Booleano (0 ou 1)
+                        pilha.empilharInteiro(par);
                         break;
 
                     // --- ARITMÉTICA ---
-                    case "ADD":
-                    case "SUB":
-                    case "MUL":
-                    case "DIV":
-                    case "MOD":
-                    case "POW":
-                        executarAritmetica(op);
+                    case CodigoOperacao.ADD:
+                    case CodigoOperacao.SUB:
+                    case CodigoOperacao.MUL:
+                    case CodigoOperacao.DIV:
+                    case CodigoOperacao.MOD:
+                    case CodigoOperacao.POW:
+                        OperacoesMaquina.aritmetica(pilha, op);
+                        break;
+
+                    // --- ARITMÉTICA TIPADA (num x num) ---
+                    case CodigoOperacao.ADDI: {
+                        long b = pilha.desempilharInteiroTipado();
+                        pilha.empilharInteiro(pilha.desempilharInteiroTipado() + b);
+                        break;
+                    }
+                    case CodigoOperacao.SUBI: {
+                        long b = pilha.desempilharInteiroTipado();
+                        pilha.empilharInteiro(pilha.desempilharInteiroTipado() - b);
+                        break;
+                    }
+                    case CodigoOperacao.MULI: {
+                        long b = pilha.desempilharInteiroTipado();
+                        pilha.empilharInteiro(pilha.desempilharInteiroTipado() * b);
+                        break;
+                    }
+                    case CodigoOperacao.MODI: {
+                        long b = pilha.desempilharInteiroTipado();
+                        pilha.empilharInteiro(pilha.desempilharInteiroTipado() % b);
+                        break;
+                    }
+                    case CodigoOperacao.REMI: { // %% (divisão inteira)
+                        long b = pilha.desempilharInteiroTipado();
+                        pilha.empilharInteiro(pilha.desempilharInteiroTipado() / b);
+                        break;
+                    }
+                    case CodigoOperacao.POWI: {
+                        long b = pilha.desempilharInteiroTipado();
+                        pilha.empilharInteiro(OperacoesMaquina.potenciaInteira(pilha.desempilharInteiroTipado(), b));
+                        break;
+                    }
+
+                    // --- ARITMÉTICA TIPADA (real x real, já convertidos por CVR) ---
+                    case CodigoOperacao.ADDR: {
+                        double b = pilha.desempilharRealTipado();
+                        pilha.empilharReal(pilha.desempilharRealTipado() + b);
+                        break;
+                    }
+                    case CodigoOperacao.SUBR: {
+                        double b = pilha.desempilharRealTipado();
+                        pilha.empilharReal(pilha.desempilharRealTipado() - b);
+                        break;
+                    }
+                    case CodigoOperacao.MULR: {
+                        double b = pilha.desempilharRealTipado();
+                        pilha.empilharReal(pilha.desempilharRealTipado() * b);
+                        break;
+                    }
+                    case CodigoOperacao.DIVR: {
+                        double b = pilha.desempilharRealTipado();
+                        pilha.empilharReal(pilha.desempilharRealTipado() / b);
+                        break;
+                    }
+                    case CodigoOperacao.MODR: {
+                        double b = pilha.desempilharRealTipado();
+                        pilha.empilharReal(pilha.desempilharRealTipado() % b);
+                        break;
+                    }
+                    case CodigoOperacao.REMR: {
+                        double b = pilha.desempilharRealTipado();
+                        pilha.empilharReal((long) (pilha.desempilharRealTipado() / b));
+                        break;
+                    }
+                    case CodigoOperacao.POWR: {
+                        double b = pilha.desempilharRealTipado();
+                        pilha.empilharReal(Math.pow(pilha.desempilharRealTipado(), b));
+                        break;
+                    }
+
+                    case CodigoOperacao.CVR: // Conversão num -> real
+                        pilha.converterParaReal(par);
                         break;
 
                     // --- MEMÓRIA (Direta) ---
-                    case "STR": // Store (guarda valor do topo no endereço)
-                        int endStr = Integer.parseInt(par);
-                        Object valStr = pilha.pop();
-                        memoria[endStr] = valStr;
+                    case CodigoOperacao.STR: // Store (guarda valor do topo no endereço)
+                        memoria.guardar(par, pilha);
+                        break;
+
+                    case CodigoOperacao.STK: // Store Keep (guarda o topo sem desempilhar)
+                        memoria.guardar(par, pilha);
+                        memoria.carregar(par, pilha);
                         break;
 
-                    case "LDV": // Load Variable (carrega valor do endereço para o topo)
-                        int endLdv = Integer.parseInt(par);
-                        pilha.push(memoria[endLdv]);
+                    case CodigoOperacao.LDV: // Load Variable (carrega valor do endereço para o topo)
+                        memoria.carregar(par, pilha);
                         break;
 
                     // --- MEMÓRIA (Indireta - Vetores) ---
                     // Como não usamos SWP, a pilha está: [..., endereço, valor] (valor no topo)
-                    case "STX": 
-                        Object valorStx = pilha.pop();   // Pega o valor
-                        int endStx = converterParaInt(pilha.pop()); // Pega o endereço
-                        memoria[endStx] = valorStx;
+                    case CodigoOperacao.STX: 
+                        memoria.guardarIndireto(pilha); // Pega o valor e depois o endereço
                         break;
 
-                    case "LDX":
-                        int endLdx = converterParaInt(pilha.pop()); // Endereço está no topo
-                        pilha.push(memoria[endLdx]);
+                    case CodigoOperacao.LDX:
+                        memoria.carregarIndireto(pilha); // Endereço está no topo
                         break;
 
                     // --- ENTRADA E SAÍDA ---
-                    case "WRT": // Write
-                        Object valorWrt = pilha.pop();
+                    case CodigoOperacao.WRT: // Write
+                        Object valorWrt = pilha.desempilharValor();
                         console.escrever(String.valueOf(valorWrt) + "\n");
                         break;
 
-                    case "REA": // Read
+                    case CodigoOperacao.REA: // Read
                     // Pede input no console
                     String input = console.ler(); // <--- A MÁGICA ACONTECE AQUI
-                    // Converte e empilha
-                    pilha.push(converterEntrada(input, Integer.parseInt(par)));
+                    // Converte e empilha (fim da entrada conta como linha vazia)
+                    pilha.empilharValor(OperacoesMaquina.converterEntrada((input != null) ? input : "", par));
                     break;
                     // --- DESVIOS ---
-                    case "JMP":
-                        ip = Integer.parseInt(par) - 1; // -1 pois a lista é base 0
+                    case CodigoOperacao.JMP:
+                        if (par < ip && verificar && !dentroDosLimites(ip - 1, par)) {
+                            ip = total; // Limite estourado ou parada pedida: encerra
+                        } else if (usarJit && par < ip) {
+                            ip = executarLacoQuente(ip - 1, par); // Desvio para trás: fim de laço
+                        } else {
+                            ip = par; // Destino já resolvido (base 0) na carga
+                        }
                         break;
                         
-                    case "JMF": // Jump if False
-                        Object condicao = pilha.pop();
-                        boolean falsa = false;
-                        if (condicao instanceof Integer) falsa = ((Integer)condicao) == 0;
-                        if (condicao instanceof Boolean) falsa = !((Boolean)condicao);
-                        
-                        if (falsa) {
-                            ip = Integer.parseInt(par) - 1;
+                    case CodigoOperacao.JMF: // Jump if False
+                        // Condições são sempre inteiros (0 = falso)
+                        if (pilha.desempilharInteiro() == 0) {
+                            ip = par;
                         }
                         break;
 
                     // --- RELACIONAIS ---
-                    case "EQL": case "DIF": case "SMR": case "BGR": case "SME": case "BGE":
-                        executarRelacional(op);
+                    case CodigoOperacao.EQL: case CodigoOperacao.DIF: case CodigoOperacao.SMR:
+                    case CodigoOperacao.BGR: case CodigoOperacao.SME: case CodigoOperacao.BGE:
+                        OperacoesMaquina.relacional(pilha, op);
+                        break;
+
+                    // --- LÓGICAS ---
+                    case CodigoOperacao.AND: case CodigoOperacao.OR: case CodigoOperacao.NOT:
+                        OperacoesMaquina.logica(pilha, op);
                         break;
                     
-                    // --- ALOCAÇÃO (Apenas reservamos espaço, ignoramos aqui pois array é fixo) ---
-                    case "ALI": case "ALR": case "ALS": case "ALB":
+                    // --- ALOCAÇÃO (já contada em ProgramaDecodificado.decodificar: nada a fazer aqui) ---
+                    case CodigoOperacao.ALI: case CodigoOperacao.ALR: case CodigoOperacao.ALS: case CodigoOperacao.ALB:
                         break; 
 
+                    // --- SUPERINSTRUÇÕES (cada uma substitui 4 instruções) ---
+                    case CodigoOperacao.OPVV:
+                    case CodigoOperacao.OPVK:
+                        operarSuper(complementos[par + 2], complementos[par], complementos[par + 1],
+                                op == CodigoOperacao.OPVK, complementos[par + 3]);
+                        ip += 3;
+                        break;
+
+                    case CodigoOperacao.INCV: {
+                        int end = complementos[par];
+                        memoria.guardarInteiro(end, memoria.inteiro(end) + complementos[par + 1]);
+                        ip += 3;
+                        break;
+                    }
+
+                    case CodigoOperacao.CPVV:
+                    case CodigoOperacao.CPVK:
+                        if (compararSuper(complementos[par + 2], complementos[par], complementos[par + 1],
+                                op == CodigoOperacao.CPVK)) {
+                            ip += 3;
+                        } else {
+                            ip = complementos[par + 3];
+                        }
+                        break;
+
+                    case CodigoOperacao.INVALIDA:
+                        console.escrever("Instrução não implementada na VM: " + textos[par] + "\n");
+                        break;
+
                     default:
-                        System.out.println("Instrução não implementada na VM: " + op);
+                        console.escrever("Instrução não implementada na VM: " + CodigoOperacao.mnemonico(op) + "\n");
                 }
             }
         } catch (Exception e) {
+            status = StatusExecucao.ERRO;
+            erro = e.getMessage();
             console.escrever("\nERRO DE EXECUÇÃO (Runtime Error): " + e.getMessage());
-            e.printStackTrace();
+            // Erros do programa (tipos, variável não inicializada, divisão por zero) já ficam no
+            // status e na mensagem; o rastro só vai para o stderr em falha inesperada da VM
+            if (!(e instanceof IllegalStateException || e instanceof ArithmeticException)) e.printStackTrace();
+        } finally {
+            if (status == StatusExecucao.EM_EXECUCAO) status = StatusExecucao.CONCLUIDA;
+            if (perfil != null) perfil.encerrar();
+            console.descarregar(); // A saída é entregue em lotes: o resto sai aqui
         }
     }
 
-    // Auxiliar para operações matemáticas
-    private void executarAritmetica(String op) {
-        double b = converterParaDouble(pilha.pop());
-        double a = converterParaDouble(pilha.pop());
-        double res = 0;
-
-        switch (op) {
-            case "ADD": res = a + b; break;
-            case "SUB": res = a - b; break;
-            case "MUL": res = a * b; break;
-            case "DIV": res = a / b; break;
-            case "MOD": res = a % b; break;
-            case "POW": res = Math.pow(a, b); break;
+    // Fim de uma volta do laço destino..origem com algum limite ativo: false encerra a execução
+    boolean dentroDosLimites(int origem, int destino) {
+        if (paradaPedida) return interromper(StatusExecucao.INTERROMPIDA);
+        if (orcamentoInstrucoes > 0) {
+            orcamentoRestante -= origem - destino + 1;
+            if (orcamentoRestante < 0) return interromper(StatusExecucao.ORCAMENTO_ESGOTADO);
         }
-        
-        // Se ambos eram inteiros originais, tenta manter inteiro (opcional, mas bom pra "num")
-        if (res == (int)res) {
-            pilha.push((int)res);
-        } else {
-            pilha.push(res);
+        if (limiteMemoria > 0 && pilha.tamanho() > limiteMemoria) {
+            return interromper(StatusExecucao.MEMORIA_EXCEDIDA);
+        }
+        if (tempoLimiteMs > 0 && --voltasAteRelogio == 0) {
+            voltasAteRelogio = VOLTAS_POR_RELOGIO;
+            if (System.nanoTime() - prazo > 0) return interromper(StatusExecucao.TEMPO_ESGOTADO);
         }
+        return true;
     }
-    
-    // Auxiliar para relacionais
-    private void executarRelacional(String op) {
-        double b = converterParaDouble(pilha.pop());
-        double a = converterParaDouble(pilha.pop());
-        boolean res = false;
-        
-        switch (op) {
-            case "EQL": res = (a == b); break;
-            case "DIF": res = (a != b); break;
-            case "SMR": res = (a < b); break;
-            case "BGR": res = (a > b); break;
-            case "SME": res = (a <= b); break;
-            case "BGE": res = (a >= b); break;
+
+    // Fim do laço de JMP para trás (MotorNos): próxima instrução ou PARAR
+    boolean continuar(int origem, int destino) {
+        return !verificar || dentroDosLimites(origem, destino);
+    }
+
+    private boolean interromper(StatusExecucao motivo) {
+        status = motivo;
+        erro = motivo.getDescricao();
+        console.escrever("\n--- Execução Interrompida: " + motivo.getDescricao() + " ---");
+        return false;
+    }
+
+    // Conta as voltas do laço que termina em 'origem'; quando ele fica quente, compila o trecho
+    // destino..origem e passa a executá-lo compilado. Devolve a próxima instrução a interpretar.
+    // Laço já compilado por outra execução do mesmo programa é usado desde a primeira volta.
+    int executarLacoQuente(int origem, int destino) {
+        // O JIT parte sempre do programa original (as superinstruções mantêm os mesmos índices)
+        CompiladorJit.Laco laco = programa.getLacoCompilado(origem);
+        if (laco == null) {
+            if (++voltas[origem] < CompiladorJit.LIMIAR_QUENTE) return destino;
+            laco = CompiladorJit.compilar(programa, destino, origem, memoria);
+            laco = programa.registrarLacoCompilado(origem, (laco != null) ? laco : CompiladorJit.Laco.NAO_COMPILAVEL);
         }
-        pilha.push(res ? 1 : 0);
+        if (laco == CompiladorJit.Laco.NAO_COMPILAVEL || !pilha.isVazia() || !laco.isCompativel(memoria)) return destino;
+        int proxima = laco.executar(memoria, console);
+        // Cada retorno do código compilado vale por até COMBUSTIVEL voltas: o próximo fim de
+        // volta já lê o relógio (a parada pedida é vista em todo fim de volta)
+        voltasAteRelogio = 1;
+        return proxima;
     }
 
-    // Utilitários de conversão
-    private double converterParaDouble(Object o) {
-        return Double.parseDouble(o.toString());
+    // --- Auxiliares das superinstruções (operam direto sobre a memória) ---
+
+    // destino = a op b, onde b é um endereço ou (constante) o próprio valor
+    void operarSuper(int op, int a, int b, boolean constante, int destino) {
+        if (op == CodigoOperacao.ADDR || op == CodigoOperacao.SUBR || op == CodigoOperacao.MULR) {
+            double x = memoria.real(a);
+            double y = constante ? b : memoria.real(b);
+            memoria.guardarReal(destino, (op == CodigoOperacao.ADDR) ? x + y : (op == CodigoOperacao.SUBR) ? x - y : x * y);
+        } else {
+            long x = memoria.inteiro(a);
+            long y = constante ? b : memoria.inteiro(b);
+            memoria.guardarInteiro(destino, (op == CodigoOperacao.ADDI) ? x + y : (op == CodigoOperacao.SUBI) ? x - y : x * y);
+        }
     }
-    
-    private int converterParaInt(Object o) {
-        return Integer.parseInt(o.toString());
+
+    boolean compararSuper(int op, int a, int b, boolean constante) {
+        // Mesmas regras de OperacoesMaquina.relacional (inclusive os erros)
+        byte tipoA = memoria.tipo(a);
+        byte tipoB = constante ? PilhaOperandos.TIPO_INTEIRO : memoria.tipo(b);
+        if (tipoA == PilhaOperandos.TIPO_NULO || tipoB == PilhaOperandos.TIPO_NULO) {
+            throw new IllegalStateException("Uso de variável não inicializada.");
+        }
+        int cmp;
+        if (tipoB == PilhaOperandos.TIPO_TEXTO) {
+            cmp = String.valueOf(memoria.valor(a)).compareTo(memoria.texto(b));
+        } else if (tipoA == PilhaOperandos.TIPO_TEXTO) {
+            throw new IllegalStateException("Esperado valor numérico, encontrado texto '" + memoria.texto(a) + "'.");
+        } else if (tipoA == PilhaOperandos.TIPO_INTEIRO && tipoB == PilhaOperandos.TIPO_INTEIRO) {
+            cmp = Long.compare(memoria.inteiro(a), constante ? b : memoria.inteiro(b));
+        } else {
+            double x = memoria.real(a);
+            double y = constante ? b : memoria.real(b);
+            cmp = (x < y) ? -1 : ((x == y) ? 0 : 1);
+        }
+        switch (op) {
+            case CodigoOperacao.EQL: return cmp == 0;
+            case CodigoOperacao.DIF: return cmp != 0;
+            case CodigoOperacao.SMR: return cmp < 0;
+            case CodigoOperacao.BGR: return cmp > 0;
+            case CodigoOperacao.SME: return cmp <= 0;
+            default: return cmp >= 0; // BGE
+        }
     }
 
-    private Object converterEntrada(String input, int tipo) {
+    // Execução sem interface gráfica: compila o fonte e roda na VM, com entrada e saída
+    // padrão ou arquivos. Status 1 em erro de compilação ou de execução (inclusive limite
+    // estourado). Limites opcionais: -i instruções, -t milissegundos, -m posições de memória.
+    public static void main(String[] args) {
+        List<String> arquivos = new ArrayList<>();
+        long orcamento = 0, tempoLimite = 0;
+        int limiteMemoria = 0;
         try {
-            switch (tipo) {
-                case 1: return Integer.parseInt(input); // num
-                case 2: return Double.parseDouble(input); // real
-                case 3: return input; // text
-                case 4: return Integer.parseInt(input); // flag (0 ou 1)
-                default: return input;
+            for (int i = 0; i < args.length; i++) {
+                if ("-i".equals(args[i]) && i + 1 < args.length) {
+                    orcamento = Long.parseLong(args[++i]);
+                } else if ("-t".equals(args[i]) && i + 1 < args.length) {
+                    tempoLimite = Long.parseLong(args[++i]);
+                } else if ("-m".equals(args[i]) && i + 1 < args.length) {
+                    limiteMemoria = Integer.parseInt(args[++i]);
+                } else {
+                    arquivos.add(args[i]);
+                }
             }
-        } catch (Exception e) {
-            return 0; // valor default em erro
+        } catch (NumberFormatException e) {
+            arquivos.clear();
         }
-    }
+        if (arquivos.isEmpty()) {
+            System.err.println("Uso: java MaquinaVirtual [-i N] [-t ms] [-m N] <arquivo-fonte> [entrada.txt] [saida.txt]");
+            return;
+        }
+        Path entrada = (arquivos.size() > 1) ? Paths.get(arquivos.get(1)) : null;
+        Path saida = (arquivos.size() > 2) ? Paths.get(arquivos.get(2)) : null;
+
+        try (Reader reader = new InputStreamReader(new FileInputStream(arquivos.get(0)), StandardCharsets.UTF_8)) {
+            ErrorHandler errorHandler = new ErrorHandler();
+            Compilador compilador = new Compilador(reader, errorHandler);
+            compilador.programa();
+
+            if (errorHandler.hasErrors()) {
+                System.err.println("=== Erros encontrados: ===");
+                for (String erro : errorHandler.getErrorMessages()) {
+                    System.err.println("- " + erro);
+                }
+                System.exit(1);
+            }
 
-    private String tipoPorCod(int i) {
-        switch(i) {
-            case 1: return "NUM";
-            case 2: return "REAL";
-            case 3: return "TEXT";
-            case 4: return "FLAG";
-            default: return "";
+            MaquinaVirtual vm;
+            try (CanalFluxo canal = CanalFluxo.arquivos(entrada, saida)) {
+                vm = new MaquinaVirtual(compilador.getInstrucoes(), canal);
+                vm.setOrcamentoInstrucoes(orcamento);
+                vm.setTempoLimiteMs(tempoLimite);
+                vm.setLimiteMemoria(limiteMemoria);
+                vm.run();
+            }
+            if (vm.getErro() != null) System.exit(1);
+        } catch (FileNotFoundException e) {
+            System.err.println("Arquivo não encontrado: " + e.getMessage());
+            System.exit(1);
+        } catch (ParseException | TokenMgrError e) {
+            System.err.println("ERRO FATAL: " + e.getMessage());
+            System.exit(1);
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Não foi possível executar: " + e.getMessage());
+            System.exit(1);
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,147 @@
+import java.util.Arrays;
+
+public class MemoriaDados {
+
+    // Área de dados da VM, do tamanho exato do programa (a tabela de símbolos começa em 1;
+    // o endereço 0 só é alcançado pela indexação de vetores, que parte de base - 1).
+    // Como na PilhaOperandos, cada posição tem uma etiqueta de tipo e o valor fica no
+    // vetor primitivo correspondente, sem boxing.
+    private final byte[] tipos;
+    private final long[] inteiros;
+    private final double[] reais;
+    private final String[] textos;
+
+    public MemoriaDados(int tamanho) {
+        tipos = new byte[tamanho];
+        inteiros = new long[tamanho];
+        reais = new double[tamanho];
+        textos = new String[tamanho];
+    }
+
+    public int tamanho() {
+        return tipos.length;
+    }
+
+    // Volta todas as posições para "não inicializada"
+    public void limpar() {
+        Arrays.fill(tipos, PilhaOperandos.TIPO_NULO);
+        Arrays.fill(textos, null);
+    }
+
+    public byte tipo(int endereco) {
+        return tipos[endereco];
+    }
+
+    // --- ACESSO DIRETO (superinstruções e código compilado) ---
+
+    // Leitura numérica: posição não inicializada vale zero, como nas instruções tipadas
+    public long inteiro(int endereco) {
+        switch (tipos[endereco]) {
+            case PilhaOperandos.TIPO_INTEIRO: return inteiros[endereco];
+            case PilhaOperandos.TIPO_REAL: return (long) reais[endereco];
+            default: return 0;
+        }
+    }
+
+    public double real(int endereco) {
+        switch (tipos[endereco]) {
+            case PilhaOperandos.TIPO_REAL: return reais[endereco];
+            case PilhaOperandos.TIPO_INTEIRO: return inteiros[endereco];
+            default: return 0;
+        }
+    }
+
+    public String texto(int endereco) {
+        return textos[endereco];
+    }
+
+    public void guardarInteiro(int endereco, long valor) {
+        tipos[endereco] = PilhaOperandos.TIPO_INTEIRO;
+        inteiros[endereco] = valor;
+    }
+
+    public void guardarReal(int endereco, double valor) {
+        tipos[endereco] = PilhaOperandos.TIPO_REAL;
+        reais[endereco] = valor;
+    }
+
+    public void guardarTexto(int endereco, String valor) {
+        tipos[endereco] = PilhaOperandos.TIPO_TEXTO;
+        textos[endereco] = valor;
+    }
+
+    // --- TROCA COM A PILHA DE OPERANDOS ---
+
+    // LDV: empilha o valor do endereço
+    public void carregar(int endereco, PilhaOperandos pilha) {
+        switch (tipos[endereco]) {
+            case PilhaOperandos.TIPO_INTEIRO: pilha.empilharInteiro(inteiros[endereco]); break;
+            case PilhaOperandos.TIPO_REAL: pilha.empilharReal(reais[endereco]); break;
+            case PilhaOperandos.TIPO_TEXTO: pilha.empilharTexto(textos[endereco]); break;
+            default: pilha.empilharValor(null);
+        }
+    }
+
+    // STR: desempilha o topo para o endereço
+    public void guardar(int endereco, PilhaOperandos pilha) {
+        switch (pilha.tipoTopo()) {
+            case PilhaOperandos.TIPO_INTEIRO: guardarInteiro(endereco, pilha.desempilharInteiroTipado()); break;
+            case PilhaOperandos.TIPO_REAL: guardarReal(endereco, pilha.desempilharRealTipado()); break;
+            case PilhaOperandos.TIPO_TEXTO: guardarTexto(endereco, pilha.desempilharTexto()); break;
+            default:
+                pilha.desempilharValor();
+                tipos[endereco] = PilhaOperandos.TIPO_NULO;
+                textos[endereco] = null;
+        }
+    }
+
+    // STX: a pilha tem [..., endereço, valor] (valor no topo)
+    public void guardarIndireto(PilhaOperandos pilha) {
+        switch (pilha.tipoTopo()) {
+            case PilhaOperandos.TIPO_INTEIRO: {
+                long valor = pilha.desempilharInteiroTipado();
+                guardarInteiro(verificarEndereco(pilha.desempilharInteiro()), valor);
+                break;
+            }
+            case PilhaOperandos.TIPO_REAL: {
+                double valor = pilha.desempilharRealTipado();
+                guardarReal(verificarEndereco(pilha.desempilharInteiro()), valor);
+                break;
+            }
+            case PilhaOperandos.TIPO_TEXTO: {
+                String valor = pilha.desempilharTexto();
+                guardarTexto(verificarEndereco(pilha.desempilharInteiro()), valor);
+                break;
+            }
+            default: {
+                pilha.desempilharValor();
+                int endereco = verificarEndereco(pilha.desempilharInteiro());
+                tipos[endereco] = PilhaOperandos.TIPO_NULO;
+                textos[endereco] = null;
+            }
+        }
+    }
+
+    // LDX: o endereço está no topo
+    public void carregarIndireto(PilhaOperandos pilha) {
+        carregar(verificarEndereco(pilha.desempilharInteiro()), pilha);
+    }
+
+    // Endereço calculado em tempo de execução (LDX/STX): erro claro fora da área de dados
+    private int verificarEndereco(long endereco) {
+        if (endereco < 0 || endereco >= tipos.length) {
+            throw new IllegalStateException("Acesso fora da área de dados (endereço " + endereco + ").");
+        }
+        return (int) endereco;
+    }
+
+    // Valor como objeto (null se não inicializado), fora do caminho quente
+    public Object valor(int endereco) {
+        switch (tipos[endereco]) {
+            case PilhaOperandos.TIPO_INTEIRO: return inteiros[endereco];
+            case PilhaOperandos.TIPO_REAL: return reais[endereco];
+            case PilhaOperandos.TIPO_TEXTO: return textos[endereco];
+            default: return null;
+        }
+    }
+}
@@ -0,0 +1,309 @@
+public final class MotorNos {
+
+    // Motor de execução alternativo ao switch do MaquinaVirtual.run(): na carga, cada
+    // instrução vira um nó (lambda) com o operando já capturado (constante, endereço,
+    // destino do desvio) e a execução é só "ip = nos[ip].executar()". Cada tipo de nó é
+    // uma classe pequena que o HotSpot compila à parte, sem o switch e sem ler os vetores
+    // do programa a cada instrução. A semântica é a do interpretador, inclusive
+    // superinstruções e laços quentes do JIT, para comparar os dois motores no mesmo programa.
+
+    static final int PARAR = -1;
+
+    interface No {
+        int executar(); // Índice da próxima instrução (PARAR encerra)
+    }
+
+    private MotorNos() {
+    }
+
+    static void executar(No[] nos) {
+        int ip = 0;
+        while (ip >= 0) {
+            ip = nos[ip].executar();
+        }
+    }
+
+    // Um nó por instrução, mais um no fim (fim do programa sem STP, ou desvio para lá)
+    static No[] compilar(ProgramaDecodificado prog, MaquinaVirtual vm, PilhaOperandos pilha,
+                         MemoriaDados memoria, CanalES console, boolean jit) {
+        int[] opcodes = prog.getOpcodes();
+        int[] operandos = prog.getOperandos();
+        int[] complementos = prog.getComplementos();
+        int total = opcodes.length;
+
+        No[] nos = new No[total + 1];
+        for (int i = 0; i < total; i++) {
+            nos[i] = compilarInstrucao(prog, i, opcodes[i], operandos[i], complementos, vm, pilha, memoria, console, jit);
+        }
+        nos[total] = () -> PARAR;
+        return nos;
+    }
+
+    // Modo perfil: cada nó registra a instrução no PerfilExecucao antes de executá-la. Os
+    // nós normais (e o switch do MaquinaVirtual) continuam sem nenhuma contagem.
+    static No[] instrumentar(No[] nos, ProgramaDecodificado prog, PerfilExecucao perfil) {
+        int[] opcodes = prog.getOpcodes();
+        No[] instrumentados = new No[nos.length];
+        for (int i = 0; i < opcodes.length; i++) {
+            final int ip = i;
+            final int op = opcodes[i];
+            final No no = nos[i];
+            instrumentados[i] = () -> {
+                perfil.registrar(ip, op);
+                return no.executar();
+            };
+        }
+        instrumentados[opcodes.length] = nos[opcodes.length];
+        return instrumentados;
+    }
+
+    private static No compilarInstrucao(ProgramaDecodificado prog, int ip, int op, int par, int[] complementos,
+                                        MaquinaVirtual vm, PilhaOperandos pilha, MemoriaDados memoria,
+                                        CanalES console, boolean jit) {
+        final int prox = ip + 1;
+        switch (op) {
+            case CodigoOperacao.STP:
+                return () -> {
+                    console.escrever("\n--- Execução Finalizada ---");
+                    return PARAR;
+                };
+
+            // --- CARGA DE CONSTANTES ---
+            case CodigoOperacao.LDI:
+            case CodigoOperacao.LDB:
+                return () -> {
+                    pilha.empilharInteiro(par);
+                    return prox;
+                };
+            case CodigoOperacao.LDR: {
+                double valor = prog.getReais()[par];
+                return () -> {
+                    pilha.empilharReal(valor);
+                    return prox;
+                };
+            }
+            case CodigoOperacao.LDS: {
+                String valor = prog.getTextos()[par];
+                return () -> {
+                    pilha.empilharTexto(valor);
+                    return prox;
+                };
+            }
+
+            // --- ARITMÉTICA ---
+            case CodigoOperacao.ADD: case CodigoOperacao.SUB: case CodigoOperacao.MUL:
+            case CodigoOperacao.DIV: case CodigoOperacao.MOD: case CodigoOperacao.POW:
+                return () -> {
+                    OperacoesMaquina.aritmetica(pilha, op);
+                    return prox;
+                };
+
+            // --- ARITMÉTICA TIPADA (num x num) ---
+            case CodigoOperacao.ADDI:
+                return () -> {
+                    long b = pilha.desempilharInteiroTipado();
+                    pilha.empilharInteiro(pilha.desempilharInteiroTipado() + b);
+                    return prox;
+                };
+            case CodigoOperacao.SUBI:
+                return () -> {
+                    long b = pilha.desempilharInteiroTipado();
+                    pilha.empilharInteiro(pilha.desempilharInteiroTipado() - b);
+                    return prox;
+                };
+            case CodigoOperacao.MULI:
+                return () -> {
+                    long b = pilha.desempilharInteiroTipado();
+                    pilha.empilharInteiro(pilha.desempilharInteiroTipado() * b);
+                    return prox;
+                };
+            case CodigoOperacao.MODI:
+                return () -> {
+                    long b = pilha.desempilharInteiroTipado();
+                    pilha.empilharInteiro(pilha.desempilharInteiroTipado() % b);
+                    return prox;
+                };
+            case CodigoOperacao.REMI:
+                return () -> {
+                    long b = pilha.desempilharInteiroTipado();
+                    pilha.empilharInteiro(pilha.desempilharInteiroTipado() / b);
+                    return prox;
+                };
+            case CodigoOperacao.POWI:
+                return () -> {
+                    long b = pilha.desempilharInteiroTipado();
+                    pilha.empilharInteiro(OperacoesMaquina.potenciaInteira(pilha.desempilharInteiroTipado(), b));
+                    return prox;
+                };
+
+            // --- ARITMÉTICA TIPADA (real x real) ---
+            case CodigoOperacao.ADDR:
+                return () -> {
+                    double b = pilha.desempilharRealTipado();
+                    pilha.empilharReal(pilha.desempilharRealTipado() + b);
+                    return prox;
+                };
+            case CodigoOperacao.SUBR:
+                return () -> {
+                    double b = pilha.desempilharRealTipado();
+                    pilha.empilharReal(pilha.desempilharRealTipado() - b);
+                    return prox;
+                };
+            case CodigoOperacao.MULR:
+                return () -> {
+                    double b = pilha.desempilharRealTipado();
+                    pilha.empilharReal(pilha.desempilharRealTipado() * b);
+                    return prox;
+                };
+            case CodigoOperacao.DIVR:
+                return () -> {
+                    double b = pilha.desempilharRealTipado();
+                    pilha.empilharReal(pilha.desempilharRealTipado() / b);
+                    return prox;
+                };
+            case CodigoOperacao.MODR:
+                return () -> {
+                    double b = pilha.desempilharRealTipado();
+                    pilha.empilharReal(pilha.desempilharRealTipado() % b);
+                    return prox;
+                };
+            case CodigoOperacao.REMR:
+                return () -> {
+                    double b = pilha.desempilharRealTipado();
+                    pilha.empilharReal((long) (pilha.desempilharRealTipado() / b));
+                    return prox;
+                };
+            case CodigoOperacao.POWR:
+                return () -> {
+                    double b = pilha.desempilharRealTipado();
+                    pilha.empilharReal(Math.pow(pilha.desempilharRealTipado(), b));
+                    return prox;
+                };
+
+            case CodigoOperacao.CVR:
+                return () -> {
+                    pilha.converterParaReal(par);
+                    return prox;
+                };
+
+            // --- MEMÓRIA ---
+            case CodigoOperacao.STR:
+                return () -> {
+                    memoria.guardar(par, pilha);
+                    return prox;
+                };
+            case CodigoOperacao.STK:
+                return () -> {
+                    memoria.guardar(par, pilha);
+                    memoria.carregar(par, pilha);
+                    return prox;
+                };
+            case CodigoOperacao.LDV:
+                return () -> {
+                    memoria.carregar(par, pilha);
+                    return prox;
+                };
+            case CodigoOperacao.STX:
+                return () -> {
+                    memoria.guardarIndireto(pilha);
+                    return prox;
+                };
+            case CodigoOperacao.LDX:
+                return () -> {
+                    memoria.carregarIndireto(pilha);
+                    return prox;
+                };
+
+            // --- ENTRADA E SAÍDA ---
+            case CodigoOperacao.WRT:
+                return () -> {
+                    console.escrever(String.valueOf(pilha.desempilharValor()) + "\n");
+                    return prox;
+                };
+            case CodigoOperacao.REA:
+                return () -> {
+                    String entrada = console.ler();
+                    pilha.empilharValor(OperacoesMaquina.converterEntrada((entrada != null) ? entrada : "", par));
+                    return prox;
+                };
+
+            // --- DESVIOS ---
+            case CodigoOperacao.JMP:
+                // Fim de laço: limites da execução (e pedido de parada) antes de voltar
+                if (jit && par < prox) {
+                    return () -> vm.continuar(ip, par) ? vm.executarLacoQuente(ip, par) : PARAR;
+                }
+                if (par < prox) {
+                    return () -> vm.continuar(ip, par) ? par : PARAR;
+                }
+                return () -> par;
+            case CodigoOperacao.JMF:
+                return () -> (pilha.desempilharInteiro() == 0) ? par : prox;
+
+            // --- RELACIONAIS ---
+            case CodigoOperacao.EQL: case CodigoOperacao.DIF: case CodigoOperacao.SMR:
+            case CodigoOperacao.BGR: case CodigoOperacao.SME: case CodigoOperacao.BGE:
+                return () -> {
+                    OperacoesMaquina.relacional(pilha, op);
+                    return prox;
+                };
+
+            // --- LÓGICAS ---
+            case CodigoOperacao.AND: case CodigoOperacao.OR: case CodigoOperacao.NOT:
+                return () -> {
+                    OperacoesMaquina.logica(pilha, op);
+                    return prox;
+                };
+
+            // --- ALOCAÇÃO (área de dados já tem o tamanho do programa) ---
+            case CodigoOperacao.ALI: case CodigoOperacao.ALR: case CodigoOperacao.ALS: case CodigoOperacao.ALB:
+                return () -> prox;
+
+            // --- SUPERINSTRUÇÕES (cada uma substitui 4 instruções) ---
+            case CodigoOperacao.OPVV:
+            case CodigoOperacao.OPVK: {
+                int operacao = complementos[par + 2];
+                int a = complementos[par];
+                int b = complementos[par + 1];
+                boolean constante = (op == CodigoOperacao.OPVK);
+                int destino = complementos[par + 3];
+                return () -> {
+                    vm.operarSuper(operacao, a, b, constante, destino);
+                    return ip + 4;
+                };
+            }
+            case CodigoOperacao.INCV: {
+                int endereco = complementos[par];
+                int incremento = complementos[par + 1];
+                return () -> {
+                    memoria.guardarInteiro(endereco, memoria.inteiro(endereco) + incremento);
+                    return ip + 4;
+                };
+            }
+            case CodigoOperacao.CPVV:
+            case CodigoOperacao.CPVK: {
+                int operacao = complementos[par + 2];
+                int a = complementos[par];
+                int b = complementos[par + 1];
+                boolean constante = (op == CodigoOperacao.CPVK);
+                int falso = complementos[par + 3];
+                return () -> vm.compararSuper(operacao, a, b, constante) ? ip + 4 : falso;
+            }
+
+            case CodigoOperacao.INVALIDA: {
+                String mensagem = "Instrução não implementada na VM: " + prog.getTextos()[par] + "\n";
+                return () -> {
+                    console.escrever(mensagem);
+                    return prox;
+                };
+            }
+            default: {
+                String mensagem = "Instrução não implementada na VM: " + CodigoOperacao.mnemonico(op) + "\n";
+                return () -> {
+                    console.escrever(mensagem);
+                    return prox;
+                };
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+public final class OperacoesMaquina {
+
+    // Semântica das operações da VM que não dependem do console: usada pelo interpretador
+    // (MaquinaVirtual), pelo JIT e pelo runtime dos programas compilados (ExecucaoCompilada).
+
+    private OperacoesMaquina() {
+    }
+
+    // Aritmética genérica (instruções sem tipo): decide pelo tipo dos valores na pilha
+    public static void aritmetica(PilhaOperandos pilha, int op) {
+        // num op num: aritmética inteira exata, sem passar por double
+        if (pilha.tipoTopo() == PilhaOperandos.TIPO_INTEIRO && op != CodigoOperacao.DIV && op != CodigoOperacao.POW) {
+            long b = pilha.desempilharInteiro();
+            if (pilha.tipoTopo() == PilhaOperandos.TIPO_INTEIRO) {
+                long a = pilha.desempilharInteiro();
+                switch (op) {
+                    case CodigoOperacao.ADD: pilha.empilharInteiro(a + b); return;
+                    case CodigoOperacao.SUB: pilha.empilharInteiro(a - b); return;
+                    case CodigoOperacao.MUL: pilha.empilharInteiro(a * b); return;
+                    case CodigoOperacao.MOD: pilha.empilharInteiro(a % b); return;
+                }
+            }
+            pilha.empilharInteiro(b);
+        }
+
+        double b = pilha.desempilharReal();
+        double a = pilha.desempilharReal();
+        double res = 0;
+
+        switch (op) {
+            case CodigoOperacao.ADD: res = a + b; break;
+            case CodigoOperacao.SUB: res = a - b; break;
+            case CodigoOperacao.MUL: res = a * b; break;
+            case CodigoOperacao.DIV: res = a / b; break;
+            case CodigoOperacao.MOD: res = a % b; break;
+            case CodigoOperacao.POW: res = Math.pow(a, b); break;
+        }
+        
+        // Se ambos eram inteiros originais, tenta manter inteiro (opcional, mas bom pra "num")
+        if (res == (long)res) {
+            pilha.empilharInteiro((long)res);
+        } else {
+            pilha.empilharReal(res);
+        }
+    }
+
+    // Relacionais: texto compara com compareTo, números como inteiros ou reais
+    public static void relacional(PilhaOperandos pilha, int op) {
+        int cmp;
+        if (pilha.tipoTopo() == PilhaOperandos.TIPO_TEXTO) {
+            String b = pilha.desempilharTexto();
+            String a = pilha.desempilharTexto();
+            cmp = a.compareTo(b);
+        } else {
+            byte tipoB = pilha.tipoTopo();
+            long ib = 0;
+            double rb = 0;
+            if (tipoB == PilhaOperandos.TIPO_INTEIRO) ib = pilha.desempilharInteiro(); else rb = pilha.desempilharReal();
+
+            if (tipoB == PilhaOperandos.TIPO_INTEIRO && pilha.tipoTopo() == PilhaOperandos.TIPO_INTEIRO) {
+                cmp = Long.compare(pilha.desempilharInteiro(), ib);
+            } else {
+                double b = (tipoB == PilhaOperandos.TIPO_INTEIRO) ? ib : rb;
+                double a = pilha.desempilharReal();
+                cmp = (a < b) ? -1 : ((a == b) ? 0 : 1);
+            }
+        }
+
+        boolean res = false;
+        switch (op) {
+            case CodigoOperacao.EQL: res = (cmp == 0); break;
+            case CodigoOperacao.DIF: res = (cmp != 0); break;
+            case CodigoOperacao.SMR: res = (cmp < 0); break;
+            case CodigoOperacao.BGR: res = (cmp > 0); break;
+            case CodigoOperacao.SME: res = (cmp <= 0); break;
+            case CodigoOperacao.BGE: res = (cmp >= 0); break;
+        }
+        pilha.empilharInteiro(res ? 1 : 0);
+    }
+
+    // Lógicas sobre flags (0 = falso). O compilador gera '&' e '|' como desvios em
+    // curto-circuito; AND/OR ficam para código objeto escrito à mão, NOT vem de '!'
+    public static void logica(PilhaOperandos pilha, int op) {
+        boolean b = pilha.desempilharInteiro() != 0;
+        boolean res;
+        switch (op) {
+            case CodigoOperacao.AND: res = (pilha.desempilharInteiro() != 0) && b; break;
+            case CodigoOperacao.OR: res = (pilha.desempilharInteiro() != 0) || b; break;
+            default: res = !b; break; // NOT
+        }
+        pilha.empilharInteiro(res ? 1 : 0);
+    }
+
+    // Potência inteira por quadrados sucessivos (expoente negativo segue a divisão inteira)
+    public static long potenciaInteira(long base, long expoente) {
+        if (expoente < 0) {
+            if (base == 1) return 1;
+            if (base == -1) return (expoente % 2 == 0) ? 1 : -1;
+            return 0;
+        }
+        long resultado = 1;
+        while (expoente > 0) {
+            if ((expoente & 1) != 0) resultado *= base;
+            base *= base;
+            expoente >>= 1;
+        }
+        return resultado;
+    }
+
+    // Converte a linha lida pelo REA conforme a categoria do parâmetro
+    public static Object converterEntrada(String input, int tipo) {
+        try {
+            switch (tipo) {
+                case 1: return Integer.parseInt(input); // num
+                case 2: return Double.parseDouble(input); // real
+                case 3: return input; // text
+                case 4: return Integer.parseInt(input); // flag (0 ou 1)
+                default: return input;
+            }
+        } catch (Exception e) {
+            // Valor default em erro, do tipo da categoria: as instruções tipadas confiam na etiqueta
+            return (tipo == 2) ? (Object) 0.0 : (Object) 0;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+import java.util.ArrayList;
+import java.util.List;
+
+public class OtimizadorPeephole {
+
+    // Instruções de trabalho (base 0); ponteiros e parâmetros de desvio continuam base 1
+    private final String[] ops;
+    private final String[] pars;
+    private final int[] linhas; // Linhas do fonte (tabela de linhas do GeradorDeCodigo)
+    private final boolean[] removida;
+    private final int n;
+
+    private OtimizadorPeephole(List<Instrucao> instrucoes) {
+        n = instrucoes.size();
+        ops = new String[n];
+        pars = new String[n];
+        linhas = new int[n];
+        removida = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            ops[i] = instrucoes.get(i).getOperacao();
+            pars[i] = instrucoes.get(i).getParametro();
+            linhas[i] = instrucoes.get(i).getLinha();
+        }
+    }
+
+    // Passo opcional entre GeradorDeCodigo.getInstrucoes() e a execução.
+    // Devolve uma nova lista renumerada; a lista original não é alterada.
+    public static List<Instrucao> otimizar(List<Instrucao> instrucoes) {
+        OtimizadorPeephole otimizador = new OtimizadorPeephole(instrucoes);
+        boolean mudou;
+        do {
+            mudou = otimizador.aplicarPadroes();
+        } while (mudou);
+        return otimizador.renumerar();
+    }
+
+    private boolean aplicarPadroes() {
+        boolean[] alvos = calcularAlvos();
+        boolean mudou = false;
+
+        for (int i = proxima(0); i < n; i = proxima(i + 1)) {
+            int j = proxima(i + 1);
+            int k = (j < n) ? proxima(j + 1) : n;
+
+            // STR x; LDV x  ->  STK x (guarda sem desempilhar)
+            if (j < n && ops[i].equals("STR") && ops[j].equals("LDV") && pars[i].equals(pars[j]) && !alvos[j]) {
+                ops[i] = "STK";
+                removida[j] = true;
+                mudou = true;
+                continue;
+            }
+
+            // LDI a; LDI b; op  ->  LDI (a op b)
+            if (k < n && ops[i].equals("LDI") && ops[j].equals("LDI") && !alvos[j] && !alvos[k]) {
+                String resultado = dobrarInteiros(ops[k], pars[i], pars[j]);
+                if (resultado != null) {
+                    pars[i] = resultado;
+                    removida[j] = true;
+                    removida[k] = true;
+                    mudou = true;
+                    continue;
+                }
+            }
+
+            // LDB 1; JMF x  ->  (nada: o desvio nunca é tomado)
+            // LDB 0; JMF x  ->  JMP x
+            if (j < n && ops[i].equals("LDB") && ops[j].equals("JMF") && !alvos[j]) {
+                if (pars[i].trim().equals("0")) {
+                    ops[i] = "JMP";
+                    pars[i] = pars[j];
+                } else {
+                    removida[i] = true;
+                }
+                removida[j] = true;
+                mudou = true;
+                continue;
+            }
+
+            // LDB 1; JMP x, com x: JMF y  ->  JMP x+1 (o '|' em curto-circuito numa condição)
+            if (j < n && ops[i].equals("LDB") && pars[i].trim().equals("1") && ops[j].equals("JMP") && !alvos[j]) {
+                int destino = destinoEfetivo(pars[j]);
+                if (destino >= 0 && destino < n && ops[destino].equals("JMF")) {
+                    ops[i] = "JMP";
+                    pars[i] = String.valueOf(destino + 2);
+                    removida[j] = true;
+                    mudou = true;
+                    continue;
+                }
+            }
+
+            // JMF x, com x: LDB 0; JMF y  ->  JMF y (o '&' em curto-circuito numa condição).
+            // Só desvios para frente, como os do compilador, para não circular.
+            if (ops[i].equals("JMF")) {
+                int destino = destinoEfetivo(pars[i]);
+                int seguinte = (destino >= 0 && destino < n) ? proxima(destino + 1) : n;
+                if (seguinte < n && ops[destino].equals("LDB") && pars[destino].trim().equals("0")
+                        && ops[seguinte].equals("JMF") && destinoEfetivo(pars[seguinte]) > seguinte) {
+                    pars[i] = pars[seguinte];
+                    mudou = true;
+                }
+            }
+
+            // JMP para a instrução seguinte
+            if (ops[i].equals("JMP") && destinoEfetivo(pars[i]) == proxima(i + 1)) {
+                removida[i] = true;
+                mudou = true;
+            }
+        }
+        return mudou;
+    }
+
+    private static String dobrarInteiros(String op, String parA, String parB) {
+        long a, b;
+        try {
+            a = Long.parseLong(parA.trim());
+            b = Long.parseLong(parB.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+
+        long r;
+        switch (op) {
+            case "ADD": case "ADDI": r = a + b; break;
+            case "SUB": case "SUBI": r = a - b; break;
+            case "MUL": case "MULI": r = a * b; break;
+            case "MODI":
+                if (b == 0) return null; // mantém o erro em tempo de execução
+                r = a % b;
+                break;
+            case "REMI":
+                if (b == 0) return null;
+                r = a / b;
+                break;
+            default:
+                return null;
+        }
+
+        // O operando de LDI é decodificado como int
+        if (r < Integer.MIN_VALUE || r > Integer.MAX_VALUE) return null;
+        return String.valueOf(r);
+    }
+
+    // Índice da primeira instrução não removida a partir de i (ou n)
+    private int proxima(int i) {
+        while (i < n && removida[i]) i++;
+        return i;
+    }
+
+    // Desvio para uma instrução removida equivale a desviar para a próxima que restou
+    private int destinoEfetivo(String parametro) {
+        int destino;
+        try {
+            destino = Integer.parseInt(parametro.trim()) - 1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+        if (destino < 0 || destino > n) return -1;
+        return proxima(destino);
+    }
+
+    private boolean[] calcularAlvos() {
+        boolean[] alvos = new boolean[n + 1];
+        for (int i = 0; i < n; i++) {
+            if (!removida[i] && (ops[i].equals("JMP") || ops[i].equals("JMF"))) {
+                int destino = destinoEfetivo(pars[i]);
+                if (destino >= 0) alvos[destino] = true;
+            }
+        }
+        return alvos;
+    }
+
+    private List<Instrucao> renumerar() {
+        // novoPonteiro[i]: ponteiro (base 1) que a instrução antiga i (ou a próxima que restou) recebe
+        int[] novoPonteiro = new int[n + 1];
+        int ponteiro = 1;
+        for (int i = 0; i < n; i++) {
+            novoPonteiro[i] = ponteiro;
+            if (!removida[i]) ponteiro++;
+        }
+        novoPonteiro[n] = ponteiro;
+
+        List<Instrucao> resultado = new ArrayList<>(ponteiro - 1);
+        for (int i = 0; i < n; i++) {
+            if (removida[i]) continue;
+            String par = pars[i];
+            if (ops[i].equals("JMP") || ops[i].equals("JMF")) {
+                int destino = destinoEfetivo(par);
+                if (destino >= 0) par = String.valueOf(novoPonteiro[destino]);
+            }
+            resultado.add(new Instrucao(novoPonteiro[i], ops[i], par, linhas[i]));
+        }
+        return resultado;
+    }
+}
@@ -0,0 +1,132 @@
+import java.util.ArrayList;
+import java.util.List;
+
+public class PerfilExecucao {
+
+    // Perfil de uma execução na VM (MaquinaVirtual.setPerfil): quantas vezes cada instrução
+    // e cada opcode executou, e o tempo gasto em cada linha do fonte (pela tabela de linhas
+    // do ProgramaDecodificado). O tempo de uma instrução é medido até o registro da
+    // seguinte, então cada instrução custa um System.nanoTime().
+
+    private static final int LIMITE_RELATORIO = 10; // Linhas e opcodes listados no relatório
+
+    private final int[] linhas;
+    private final long[] execucoesInstrucao;
+    private final long[] execucoesOpcode = new long[CodigoOperacao.INVALIDA + 1];
+    private final long[] tempoLinha;    // Nanossegundos por linha do fonte (índice 0 = sem linha)
+    private final long[] execucoesLinha;
+
+    private long inicio;
+    private long ultimoRegistro;
+    private int linhaAnterior;
+    private long tempoTotal;
+
+    public PerfilExecucao(ProgramaDecodificado programa) {
+        this.linhas = programa.getLinhas();
+        this.execucoesInstrucao = new long[linhas.length];
+        int maiorLinha = 0;
+        for (int linha : linhas) {
+            maiorLinha = Math.max(maiorLinha, linha);
+        }
+        this.tempoLinha = new long[maiorLinha + 1];
+        this.execucoesLinha = new long[maiorLinha + 1];
+        iniciar();
+    }
+
+    // Começo da execução, depois da preparação dos nós (que não entra na conta)
+    void iniciar() {
+        inicio = System.nanoTime();
+        ultimoRegistro = inicio;
+    }
+
+    // Antes de executar a instrução 'ip': fecha o tempo da instrução anterior
+    void registrar(int ip, int op) {
+        long agora = System.nanoTime();
+        tempoLinha[linhaAnterior] += agora - ultimoRegistro;
+        ultimoRegistro = agora;
+        int linha = linhas[ip];
+        linhaAnterior = linha;
+        execucoesInstrucao[ip]++;
+        execucoesOpcode[op]++;
+        execucoesLinha[linha]++;
+    }
+
+    // Fim da execução (normal ou por erro): fecha o tempo da última instrução
+    void encerrar() {
+        long agora = System.nanoTime();
+        tempoLinha[linhaAnterior] += agora - ultimoRegistro;
+        ultimoRegistro = agora;
+        tempoTotal = agora - inicio;
+    }
+
+    public long[] getExecucoesInstrucao() {
+        return execucoesInstrucao;
+    }
+
+    public long[] getExecucoesOpcode() {
+        return execucoesOpcode;
+    }
+
+    // Índice = linha do fonte
+    public long[] getTempoLinha() {
+        return tempoLinha;
+    }
+
+    public long[] getExecucoesLinha() {
+        return execucoesLinha;
+    }
+
+    public long getTempoTotal() {
+        return tempoTotal;
+    }
+
+    public long getTotalExecutado() {
+        long total = 0;
+        for (long n : execucoesOpcode) {
+            total += n;
+        }
+        return total;
+    }
+
+    // Linhas e opcodes mais quentes, em texto
+    public String relatorio() {
+        StringBuilder sb = new StringBuilder();
+        long totalExecutado = getTotalExecutado();
+        long tempoLinhas = 0;
+        for (long t : tempoLinha) {
+            tempoLinhas += t;
+        }
+
+        sb.append("--- Perfil de Execução ---\n");
+        sb.append(String.format("Tempo total: %.3f ms, %d instruções executadas%n", tempoTotal / 1e6, totalExecutado));
+
+        sb.append("\nLinhas mais quentes:\n");
+        sb.append(String.format("%8s %12s %7s %12s%n", "linha", "tempo (ms)", "%", "execuções"));
+        for (int linha : maiores(tempoLinha, LIMITE_RELATORIO)) {
+            sb.append(String.format("%8s %12.3f %7.1f %12d%n", (linha == 0) ? "?" : String.valueOf(linha),
+                    tempoLinha[linha] / 1e6, percentual(tempoLinha[linha], tempoLinhas), execucoesLinha[linha]));
+        }
+
+        sb.append("\nOpcodes mais executados:\n");
+        sb.append(String.format("%8s %12s %7s%n", "opcode", "execuções", "%"));
+        for (int op : maiores(execucoesOpcode, LIMITE_RELATORIO)) {
+            sb.append(String.format("%8s %12d %7.1f%n", CodigoOperacao.mnemonico(op), execucoesOpcode[op],
+                    percentual(execucoesOpcode[op], totalExecutado)));
+        }
+        return sb.toString();
+    }
+
+    private static double percentual(long parte, long total) {
+        return (total == 0) ? 0 : 100.0 * parte / total;
+    }
+
+    // Índices dos 'limite' maiores valores positivos, do maior para o menor
+    private static List<Integer> maiores(long[] valores, int limite) {
+        List<Integer> indices = new ArrayList<>();
+        for (int i = 0; i < valores.length; i++) {
+            if (valores[i] > 0) indices.add(i);
+        }
+        indices.sort((a, b) -> Long.compare(valores[b], valores[a]));
+        return (indices.size() > limite) ? indices.subList(0, limite) : indices;
+    }
+}
@@ -0,0 +1,160 @@
+import java.util.Arrays;
+
+public class PilhaOperandos {
+
+    // Etiquetas de tipo de cada posição da pilha
+    public static final byte TIPO_NULO = 0;    // memória ainda não inicializada
+    public static final byte TIPO_INTEIRO = 1; // num e flag (0 ou 1)
+    public static final byte TIPO_REAL = 2;
+    public static final byte TIPO_TEXTO = 3;
+
+    private static final int CAPACIDADE_INICIAL = 64;
+
+    // Posições paralelas: o tipo diz qual dos vetores guarda o valor de cada posição.
+    // Inteiros e reais ficam em vetores primitivos, sem boxing.
+    private byte[] tipos = new byte[CAPACIDADE_INICIAL];
+    private long[] inteiros = new long[CAPACIDADE_INICIAL];
+    private double[] reais = new double[CAPACIDADE_INICIAL];
+    private String[] textos = new String[CAPACIDADE_INICIAL];
+    private int topo = 0; // próxima posição livre
+
+    public void limpar() {
+        Arrays.fill(textos, 0, topo, null);
+        topo = 0;
+    }
+
+    public boolean isVazia() {
+        return topo == 0;
+    }
+
+    public int tamanho() {
+        return topo;
+    }
+
+    public byte tipoTopo() {
+        return tipos[topo - 1];
+    }
+
+    // --- EMPILHAR ---
+
+    public void empilharInteiro(long valor) {
+        if (topo == tipos.length) crescer();
+        tipos[topo] = TIPO_INTEIRO;
+        inteiros[topo++] = valor;
+    }
+
+    public void empilharReal(double valor) {
+        if (topo == tipos.length) crescer();
+        tipos[topo] = TIPO_REAL;
+        reais[topo++] = valor;
+    }
+
+    public void empilharTexto(String valor) {
+        if (topo == tipos.length) crescer();
+        tipos[topo] = TIPO_TEXTO;
+        textos[topo++] = valor;
+    }
+
+    // Empilha um valor vindo da memória ou da entrada (fora do caminho quente)
+    public void empilharValor(Object valor) {
+        if (valor instanceof Long || valor instanceof Integer) {
+            empilharInteiro(((Number) valor).longValue());
+        } else if (valor instanceof Double) {
+            empilharReal((Double) valor);
+        } else if (valor instanceof Boolean) {
+            empilharInteiro(((Boolean) valor) ? 1 : 0);
+        } else if (valor == null) {
+            // Variável não inicializada: as operações tipadas leem zero
+            if (topo == tipos.length) crescer();
+            tipos[topo] = TIPO_NULO;
+            inteiros[topo] = 0;
+            reais[topo++] = 0;
+        } else {
+            empilharTexto(valor.toString());
+        }
+    }
+
+    // --- DESEMPILHAR ---
+
+    public long desempilharInteiro() {
+        int i = --topo;
+        switch (tipos[i]) {
+            case TIPO_INTEIRO: return inteiros[i];
+            case TIPO_REAL: return (long) reais[i];
+            default: throw valorInvalido(i, "inteiro");
+        }
+    }
+
+    // Inteiros são promovidos a real sem passar por String
+    public double desempilharReal() {
+        int i = --topo;
+        switch (tipos[i]) {
+            case TIPO_REAL: return reais[i];
+            case TIPO_INTEIRO: return inteiros[i];
+            default: throw valorInvalido(i, "numérico");
+        }
+    }
+
+    // Versões sem verificação de etiqueta, para as instruções tipadas:
+    // o compilador já garantiu o tipo do operando.
+    public long desempilharInteiroTipado() {
+        return inteiros[--topo];
+    }
+
+    public double desempilharRealTipado() {
+        return reais[--topo];
+    }
+
+    // Promove a posição (0 = topo, 1 = abaixo do topo) de num para real
+    public void converterParaReal(int profundidade) {
+        int i = topo - 1 - profundidade;
+        if (tipos[i] != TIPO_REAL) {
+            reais[i] = inteiros[i];
+            tipos[i] = TIPO_REAL;
+        }
+    }
+
+    public String desempilharTexto() {
+        int i = --topo;
+        String valor = textos[i];
+        textos[i] = null;
+        return (tipos[i] == TIPO_TEXTO) ? valor : String.valueOf(valorEm(i));
+    }
+
+    // Lê o topo como objeto, sem retirá-lo
+    public Object valorTopo() {
+        return valorEm(topo - 1);
+    }
+
+    // Retira o topo como objeto (usado ao guardar na memória e na saída)
+    public Object desempilharValor() {
+        int i = --topo;
+        Object valor = valorEm(i);
+        textos[i] = null;
+        return valor;
+    }
+
+    private Object valorEm(int i) {
+        switch (tipos[i]) {
+            case TIPO_INTEIRO: return inteiros[i];
+            case TIPO_REAL: return reais[i];
+            case TIPO_TEXTO: return textos[i];
+            default: return null;
+        }
+    }
+
+    private RuntimeException valorInvalido(int i, String esperado) {
+        if (tipos[i] == TIPO_NULO) {
+            return new IllegalStateException("Uso de variável não inicializada.");
+        }
+        return new IllegalStateException("Esperado valor " + esperado + ", encontrado texto '" + textos[i] + "'.");
+    }
+
+    private void crescer() {
+        int novaCapacidade = tipos.length * 2;
+        tipos = Arrays.copyOf(tipos, novaCapacidade);
+        inteiros = Arrays.copyOf(inteiros, novaCapacidade);
+        reais = Arrays.copyOf(reais, novaCapacidade);
+        textos = Arrays.copyOf(textos, novaCapacidade);
+    }
+}
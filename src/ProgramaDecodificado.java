@@ -0,0 +1,234 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+public class ProgramaDecodificado {
+
+    // Fluxo de instruções já decodificado: opcodes[i] é o código (CodigoOperacao)
+    // e operandos[i] o parâmetro resolvido da instrução i (base 0).
+    private final int[] opcodes;
+    private final int[] operandos;
+
+    // Pool de constantes referenciadas pelos operandos de LDR e LDS/INVALIDA
+    private final double[] reais;
+    private final String[] textos;
+
+    // Tabela de desvios: alvos[i] indica que alguma instrução JMP/JMF desvia para i
+    private final boolean[] alvos;
+
+    // Tabela de linhas: linhas[i] é a linha do fonte da instrução i (0 = desconhecida)
+    private final int[] linhas;
+
+    // Argumentos das superinstruções (vazio fora do modo com fusão)
+    private final int[] complementos;
+
+    // Tamanho da área de dados: soma das alocações ALI/ALR/ALS/ALB (igual ao VT final da
+    // tabela de símbolos), ou o maior endereço direto usado, se for maior
+    private final int tamanhoMemoria;
+
+    // Laços compilados pelo JIT, pelo índice do JMP de retorno: a única parte que muda depois
+    // da decodificação, compartilhada por todas as VMs que executam esta imagem (o código
+    // compilado não guarda estado, e Laco.isCompativel confere os tipos da memória de cada VM)
+    private final AtomicReferenceArray<CompiladorJit.Laco> lacosCompilados;
+
+    private ProgramaDecodificado(int[] opcodes, int[] operandos, double[] reais, String[] textos, boolean[] alvos,
+                                 int[] linhas, int[] complementos, int tamanhoMemoria) {
+        this.opcodes = opcodes;
+        this.operandos = operandos;
+        this.reais = reais;
+        this.textos = textos;
+        this.alvos = alvos;
+        this.linhas = linhas;
+        this.complementos = complementos;
+        this.tamanhoMemoria = tamanhoMemoria;
+        this.lacosCompilados = new AtomicReferenceArray<>(opcodes.length);
+    }
+
+    public static ProgramaDecodificado decodificar(List<Instrucao> instrucoes) {
+        int n = instrucoes.size();
+        int[] opcodes = new int[n];
+        int[] operandos = new int[n];
+        boolean[] alvos = new boolean[n + 1];
+        int[] linhas = new int[n];
+
+        List<Double> reais = new ArrayList<>();
+        Map<Double, Integer> indiceReais = new HashMap<>();
+        List<String> textos = new ArrayList<>();
+        Map<String, Integer> indiceTextos = new HashMap<>();
+        long alocado = 1; // os endereços começam em 1, como o VT da tabela de símbolos
+        int maiorEndereco = 0;
+
+        for (int i = 0; i < n; i++) {
+            Instrucao inst = instrucoes.get(i);
+            int op = CodigoOperacao.deMnemonico(inst.getOperacao());
+            String par = inst.getParametro();
+            opcodes[i] = op;
+            linhas[i] = inst.getLinha();
+
+            switch (op) {
+                case CodigoOperacao.LDI:
+                case CodigoOperacao.LDB:
+                case CodigoOperacao.REA:
+                case CodigoOperacao.CVR:
+                    operandos[i] = lerInteiro(inst);
+                    break;
+
+                case CodigoOperacao.STR:
+                case CodigoOperacao.STK:
+                case CodigoOperacao.LDV:
+                    operandos[i] = lerInteiro(inst);
+                    if (operandos[i] < 0) {
+                        throw new IllegalArgumentException("Endereço inválido na instrução " + inst + ".");
+                    }
+                    maiorEndereco = Math.max(maiorEndereco, operandos[i]);
+                    break;
+
+                case CodigoOperacao.ALI:
+                case CodigoOperacao.ALR:
+                case CodigoOperacao.ALS:
+                case CodigoOperacao.ALB:
+                    operandos[i] = lerInteiro(inst);
+                    alocado += Math.max(operandos[i], 0);
+                    break;
+
+                case CodigoOperacao.JMP:
+                case CodigoOperacao.JMF:
+                    // O parâmetro é o ponteiro (base 1) do destino: resolve para o índice absoluto
+                    // e valida aqui, uma única vez. Desviar para n equivale a sair do fim do programa.
+                    int destino = lerInteiro(inst) - 1;
+                    if (destino < 0 || destino > n) {
+                        throw new IllegalArgumentException("Desvio para endereço inexistente na instrução " + inst + ".");
+                    }
+                    operandos[i] = destino;
+                    alvos[destino] = true;
+                    break;
+
+                case CodigoOperacao.LDR:
+                    double valor = lerReal(inst);
+                    Integer posReal = indiceReais.get(valor);
+                    if (posReal == null) {
+                        posReal = reais.size();
+                        reais.add(valor);
+                        indiceReais.put(valor, posReal);
+                    }
+                    operandos[i] = posReal;
+                    break;
+
+                case CodigoOperacao.LDS:
+                    operandos[i] = indiceTexto(removerAspas(par), textos, indiceTextos);
+                    break;
+
+                case CodigoOperacao.INVALIDA:
+                    operandos[i] = indiceTexto(inst.getOperacao(), textos, indiceTextos);
+                    break;
+
+                default:
+                    operandos[i] = 0;
+            }
+        }
+
+        double[] poolReais = new double[reais.size()];
+        for (int i = 0; i < poolReais.length; i++) {
+            poolReais[i] = reais.get(i);
+        }
+        if (alocado > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Área de dados grande demais (" + alocado + " posições).");
+        }
+        int tamanhoMemoria = (int) Math.max(alocado, maiorEndereco + 1L);
+        return new ProgramaDecodificado(opcodes, operandos, poolReais, textos.toArray(new String[0]), alvos, linhas, new int[0],
+                tamanhoMemoria);
+    }
+
+    private static int lerInteiro(Instrucao inst) {
+        try {
+            return Integer.parseInt(inst.getParametro().trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Parâmetro inválido na instrução " + inst + ": esperado inteiro.");
+        }
+    }
+
+    private static double lerReal(Instrucao inst) {
+        try {
+            return Double.parseDouble(inst.getParametro().trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Parâmetro inválido na instrução " + inst + ": esperado real.");
+        }
+    }
+
+    private static int indiceTexto(String texto, List<String> textos, Map<String, Integer> indice) {
+        Integer pos = indice.get(texto);
+        if (pos == null) {
+            pos = textos.size();
+            textos.add(texto.intern());
+            indice.put(texto, pos);
+        }
+        return pos;
+    }
+
+    // Remove as aspas da constante literal (tanto "..." quanto '...')
+    private static String removerAspas(String texto) {
+        if (texto.length() >= 2 &&
+                (texto.startsWith("\"") && texto.endsWith("\"") || texto.startsWith("'") && texto.endsWith("'"))) {
+            return texto.substring(1, texto.length() - 1);
+        }
+        return texto;
+    }
+
+    public int tamanho() {
+        return opcodes.length;
+    }
+
+    public int[] getOpcodes() {
+        return opcodes;
+    }
+
+    public int[] getOperandos() {
+        return operandos;
+    }
+
+    public double[] getReais() {
+        return reais;
+    }
+
+    public String[] getTextos() {
+        return textos;
+    }
+
+    // Cópia com as superinstruções de FusaoSuperinstrucoes (pools e tabela de desvios são compartilhados)
+    ProgramaDecodificado comSuperinstrucoes(int[] opcodes, int[] operandos, int[] complementos) {
+        return new ProgramaDecodificado(opcodes, operandos, reais, textos, alvos, linhas, complementos, tamanhoMemoria);
+    }
+
+    public int getTamanhoMemoria() {
+        return tamanhoMemoria;
+    }
+
+    public int[] getLinhas() {
+        return linhas;
+    }
+
+    public int[] getComplementos() {
+        return complementos;
+    }
+
+    // Laço que termina no JMP 'origem', já compilado por alguma VM (null se ainda não)
+    public CompiladorJit.Laco getLacoCompilado(int origem) {
+        return lacosCompilados.get(origem);
+    }
+
+    // Guarda o laço compilado, a menos que outra VM tenha guardado antes: devolve o que ficou
+    public CompiladorJit.Laco registrarLacoCompilado(int origem, CompiladorJit.Laco laco) {
+        return lacosCompilados.compareAndSet(origem, null, laco) ? laco : lacosCompilados.get(origem);
+    }
+
+    public boolean isAlvoDeDesvio(int indice) {
+        return alvos[indice];
+    }
+
+    // Desvio para trás (fim de laço): o destino já resolvido não está adiante da instrução
+    public boolean isRetorno(int indice) {
+        return opcodes[indice] == CodigoOperacao.JMP && operandos[indice] <= indice;
+    }
+}
@@ -0,0 +1,72 @@
+public class ReservatorioNomes {
+
+    // Reservatório de nomes (symbol pool) do analisador léxico: cada imagem curta (palavra
+    // reservada, identificador, número) existe uma vez só por compilação. A busca é feita
+    // direto sobre os caracteres do fonte, então um nome repetido não aloca nada, e a tabela
+    // de símbolos compara as chaves por identidade (String.equals começa por ==).
+    // Tabela de endereçamento aberto; não é thread-safe (um por análise).
+
+    // Acima disso (literais longos, comentários) a imagem dificilmente se repete
+    private static final int TAMANHO_MAXIMO = 64;
+
+    private String[] tabela = new String[256];
+    private int total = 0;
+
+    public String internar(CharSequence texto, int inicio, int fim) {
+        int tamanho = fim - inicio;
+        if (tamanho > TAMANHO_MAXIMO) return texto.subSequence(inicio, fim).toString();
+
+        int hash = 0; // Mesma fórmula do String.hashCode, que fica guardado na String
+        for (int i = inicio; i < fim; i++) {
+            hash = 31 * hash + texto.charAt(i);
+        }
+        int mascara = tabela.length - 1;
+        int i = espalhar(hash) & mascara;
+        while (tabela[i] != null) {
+            String nome = tabela[i];
+            if (nome.hashCode() == hash && mesmosCaracteres(nome, texto, inicio, tamanho)) return nome;
+            i = (i + 1) & mascara;
+        }
+
+        String nome = texto.subSequence(inicio, fim).toString();
+        tabela[i] = nome;
+        if (++total * 2 > tabela.length) crescer();
+        return nome;
+    }
+
+    public int tamanho() {
+        return total;
+    }
+
+    public void limpar() {
+        tabela = new String[256];
+        total = 0;
+    }
+
+    private static boolean mesmosCaracteres(String nome, CharSequence texto, int inicio, int tamanho) {
+        if (nome.length() != tamanho) return false;
+        for (int i = 0; i < tamanho; i++) {
+            if (nome.charAt(i) != texto.charAt(inicio + i)) return false;
+        }
+        return true;
+    }
+
+    // Os bits baixos do hash de nomes parecidos ("x1", "x2", ...) variam pouco
+    private static int espalhar(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private void crescer() {
+        String[] antiga = tabela;
+        tabela = new String[antiga.length * 2];
+        int mascara = tabela.length - 1;
+        for (String nome : antiga) {
+            if (nome == null) continue;
+            int i = espalhar(nome.hashCode()) & mascara;
+            while (tabela[i] != null) {
+                i = (i + 1) & mascara;
+            }
+            tabela[i] = nome;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+public enum StatusExecucao {
+
+    // Como terminou a última execução de um MaquinaVirtual (getStatus)
+
+    NAO_EXECUTADA("Não executada"),
+    EM_EXECUCAO("Em execução"),
+    CONCLUIDA("Concluída"),
+    ERRO("Erro de execução"),
+    INTERROMPIDA("Interrompida pelo usuário"),
+    ORCAMENTO_ESGOTADO("Orçamento de instruções esgotado"),
+    TEMPO_ESGOTADO("Tempo limite esgotado"),
+    MEMORIA_EXCEDIDA("Limite de memória excedido");
+
+    private final String descricao;
+
+    StatusExecucao(String descricao) {
+        this.descricao = descricao;
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+}
@@ -3,6 +3,9 @@ import java.util.Map;
 
 public class TabelaDeSimbolos {
 
+    // Os lexemas vêm das imagens dos tokens, que o FluxoTexto tira do ReservatorioNomes: a
+    // mesma String para o mesmo nome, com o hash já calculado, então a busca acerta pela
+    // identidade sem comparar caracteres. Nomes de outra origem continuam funcionando.
     private Map<String, Simbolo> tabela;
     private ErrorHandler errorHandler;
 
@@ -45,6 +48,12 @@ public class TabelaDeSimbolos {
         return tabela.get(lexema);
     }
 
+    // Volta ao estado inicial (Compilador.reiniciar), mantendo a capacidade do mapa
+    public void limpar() {
+        tabela.clear();
+        VT = 1;
+    }
+
     public int getVT() {
         return this.VT;
     }
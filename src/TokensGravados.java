@@ -0,0 +1,26 @@
+import java.io.StringReader;
+import java.util.List;
+
+public class TokensGravados extends CompiladorTokenManager {
+
+    // Entrega ao parser os tokens de uma análise léxica já feita (Compilador.analisarLexico),
+    // em vez de ler o fonte de novo. Depois do EOF continua devolvendo o EOF.
+
+    private final List<Token> tokens;
+    private int proximo = 0;
+
+    public TokensGravados(List<Token> tokens) {
+        super(new SimpleCharStream(new StringReader("")));
+        if (tokens.isEmpty() || tokens.get(tokens.size() - 1).kind != CompiladorConstants.EOF) {
+            throw new IllegalArgumentException("A lista de tokens deve terminar no EOF.");
+        }
+        this.tokens = tokens;
+    }
+
+    @Override
+    public Token getNextToken() {
+        Token t = tokens.get(proximo);
+        if (proximo < tokens.size() - 1) proximo++;
+        return t;
+    }
+}